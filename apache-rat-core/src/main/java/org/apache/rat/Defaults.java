@@ -55,6 +55,15 @@ public class Defaults {
      */
     public static final String UNAPPROVED_LICENSES_STYLESHEET = "org/apache/rat/unapproved-licenses.xsl";
 
+    /**
+     * The suppliers of the built in style sheets.  The same instances are always returned so that the reporter can
+     * recognise them and render the report without XSLT.
+     */
+    private static final IOSupplier<InputStream> PLAIN_STYLESHEET_SUPPLIER = () -> Defaults.class.getClassLoader()
+            .getResourceAsStream(Defaults.PLAIN_STYLESHEET);
+    private static final IOSupplier<InputStream> UNAPPROVED_LICENSES_STYLESHEET_SUPPLIER = () -> Defaults.class
+            .getClassLoader().getResourceAsStream(Defaults.UNAPPROVED_LICENSES_STYLESHEET);
+
     private LicenseSetFactory setFactory;
     
     /**
@@ -115,7 +124,7 @@ public class Defaults {
      * @return an IOSupplier for the plain text stylesheet.
      */
     public static IOSupplier<InputStream> getPlainStyleSheet() {
-        return () -> Defaults.class.getClassLoader().getResourceAsStream(Defaults.PLAIN_STYLESHEET);
+        return PLAIN_STYLESHEET_SUPPLIER;
     }
 
     /**
@@ -123,7 +132,7 @@ public class Defaults {
      * @return an IOSupplier for the unapproved licenses list stylesheet.
      */
     public static IOSupplier<InputStream> getUnapprovedLicensesStyleSheet() {
-        return () -> Defaults.class.getClassLoader().getResourceAsStream(Defaults.UNAPPROVED_LICENSES_STYLESHEET);
+        return UNAPPROVED_LICENSES_STYLESHEET_SUPPLIER;
     }
 
     public SortedSet<ILicense> getLicenses(LicenseFilter filter) {
@@ -22,14 +22,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.SortedSet;
-import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -39,11 +40,8 @@ import org.apache.commons.cli.OptionGroup;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.NameFileFilter;
-import org.apache.commons.io.filefilter.NotFileFilter;
-import org.apache.commons.io.filefilter.OrFileFilter;
-import org.apache.commons.io.filefilter.RegexFileFilter;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.io.function.IOSupplier;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.rat.config.AddLicenseHeaders;
 import org.apache.rat.license.ILicense;
@@ -51,7 +49,11 @@ import org.apache.rat.license.ILicenseFamily;
 import org.apache.rat.license.LicenseSetFactory.LicenseFilter;
 import org.apache.rat.report.IReportable;
 import org.apache.rat.walker.ArchiveWalker;
+import org.apache.rat.walker.ChangedFilesWalker;
 import org.apache.rat.walker.DirectoryWalker;
+import org.apache.rat.walker.FileListWalker;
+import org.apache.rat.walker.NamePatternFilter;
+import org.apache.rat.walker.PathPatternFilter;
 
 /**
  * The CLI based configuration object for report generation.
@@ -109,6 +111,46 @@ public class Report {
      */
     private static final String XML = "x";
 
+    /**
+     * The number of threads used to analyse files.
+     */
+    private static final String THREADS = "threads";
+
+    /**
+     * The maximum number of lines to read from each file.
+     */
+    private static final String SCAN_LINE_LIMIT = "scan-line-limit";
+
+    /**
+     * The maximum number of characters to read from each file.
+     */
+    private static final String SCAN_CHAR_LIMIT = "scan-char-limit";
+
+    /**
+     * The file to cache analysis results in between runs.
+     */
+    private static final String CACHE_FILE = "cache-file";
+
+    /**
+     * The number of levels of nested archives to scan.
+     */
+    private static final String ARCHIVE_DEPTH = "archive-depth";
+
+    /**
+     * The git reference to report the changes since.
+     */
+    private static final String CHANGED_SINCE = "changed-since";
+
+    /**
+     * The file to read the list of files to report on from.
+     */
+    private static final String FILES_FROM = "files-from";
+
+    /**
+     * The list of files is NUL separated.
+     */
+    private static final String NULL = "null";
+
     /*
      * Format used for listing license families
      */
@@ -131,6 +173,7 @@ public class Report {
         CommandLine cl = null;
         try {
             cl = new DefaultParser().parse(opts, args);
+            checkChangedSince(cl);
         } catch (ParseException e) {
             System.err.println(e.getMessage());
             System.err.println("Please use the \"--help\" option to see a list of valid commands and options");
@@ -144,6 +187,9 @@ public class Report {
         }
 
         args = cl.getArgs();
+        if (cl.hasOption(FILES_FROM) && args != null && args.length == 0) {
+            args = new String[] {"."};
+        }
         if (args == null || args.length != 1) {
             printUsage(opts);
         } else {
@@ -157,13 +203,13 @@ public class Report {
             if (cl.hasOption(EXCLUDE_CLI)) {
                 String[] excludes = cl.getOptionValues(EXCLUDE_CLI);
                 if (excludes != null) {
-                    final FilenameFilter filter = parseExclusions(Arrays.asList(excludes));
+                    final FilenameFilter filter = parseExclusions(new File(args[0]), Arrays.asList(excludes));
                     configuration.setInputFileFilter(filter);
                 }
             } else if (cl.hasOption(EXCLUDE_FILE_CLI)) {
                 String excludeFileName = cl.getOptionValue(EXCLUDE_FILE_CLI);
                 if (excludeFileName != null) {
-                    final FilenameFilter filter = parseExclusions(
+                    final FilenameFilter filter = parseExclusions(new File(args[0]),
                             FileUtils.readLines(new File(excludeFileName), Charset.forName("UTF-8")));
                     configuration.setInputFileFilter(filter);
                 }
@@ -190,6 +236,40 @@ public class Report {
                 }
             }
 
+            if (cl.hasOption(THREADS)) {
+                try {
+                    configuration.setThreads(Integer.parseInt(cl.getOptionValue(THREADS)));
+                } catch (NumberFormatException e) {
+                    System.err.println("please specify the number of threads as an integer");
+                    System.exit(1);
+                }
+            }
+
+            try {
+                if (cl.hasOption(SCAN_LINE_LIMIT)) {
+                    configuration.setScanLineLimit(Integer.parseInt(cl.getOptionValue(SCAN_LINE_LIMIT)));
+                }
+                if (cl.hasOption(SCAN_CHAR_LIMIT)) {
+                    configuration.setScanCharLimit(Long.parseLong(cl.getOptionValue(SCAN_CHAR_LIMIT)));
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("please specify the scan limits as integers");
+                System.exit(1);
+            }
+
+            if (cl.hasOption(ARCHIVE_DEPTH)) {
+                try {
+                    configuration.setArchiveDepth(Integer.parseInt(cl.getOptionValue(ARCHIVE_DEPTH)));
+                } catch (NumberFormatException e) {
+                    System.err.println("please specify the archive depth as an integer");
+                    System.exit(1);
+                }
+            }
+
+            if (cl.hasOption(CACHE_FILE)) {
+                configuration.setCacheFile(new File(cl.getOptionValue(CACHE_FILE)));
+            }
+
             Defaults.Builder defaultBuilder = Defaults.builder();
             if (cl.hasOption(NO_DEFAULTS)) {
                 defaultBuilder.noDefault();
@@ -201,7 +281,12 @@ public class Report {
             }
             Defaults defaults = defaultBuilder.build();
             configuration.setFrom(defaults);
-            configuration.setReportable(getDirectory(args[0], configuration));
+            if (cl.hasOption(FILES_FROM)) {
+                configuration.setReportable(getFileList(args[0], configuration, cl.getOptionValue(FILES_FROM),
+                        cl.hasOption(NULL)));
+            } else {
+                configuration.setReportable(getDirectory(args[0], configuration, cl.getOptionValue(CHANGED_SINCE)));
+            }
             configuration.validate(s -> System.err.println(s));
 
             if (cl.hasOption(LIST_LICENSE_FAMILIES)) {
@@ -235,31 +320,62 @@ public class Report {
      * @return the FilenameFilter tht excludes the patterns
      */
     static FilenameFilter parseExclusions(List<String> excludes) {
-        final OrFileFilter orFilter = new OrFileFilter();
+        return parseExclusions(null, excludes);
+    }
+
+    /**
+     * Creates a filename filter from patterns to exclude.  Patterns are matched against file names as
+     * regular expressions, names and wildcards.  Patterns containing a {@code /} are matched as Ant style
+     * patterns against the path relative to the base directory, so that {@code target/**} or
+     * {@code **&#47;.venv/**} stop the walker from listing those directories.
+     * @param base the directory being reported on, or null if paths are matched as given.
+     * @param excludes the list of patterns to exclude.
+     * @return the FilenameFilter tht excludes the patterns
+     */
+    static FilenameFilter parseExclusions(File base, List<String> excludes) {
+        final List<String> namePatterns = new ArrayList<>();
+        final List<String> pathPatterns = new ArrayList<>();
         int ignoredLines = 0;
         for (String exclude : excludes) {
-            try {
-                // skip comments
-                if (exclude.startsWith("#") || StringUtils.isEmpty(exclude)) {
-                    ignoredLines++;
-                    continue;
-                }
+            // skip comments
+            if (exclude.startsWith("#") || StringUtils.isEmpty(exclude)) {
+                ignoredLines++;
+                continue;
+            }
 
-                String exclusion = exclude.trim();
+            String exclusion = exclude.trim();
+            // a file name never contains a '/', such patterns only match paths
+            if (exclusion.indexOf('/') >= 0) {
+                pathPatterns.add(exclusion);
+            } else {
                 // interpret given patterns as regular expression, direct file names or
                 // wildcards to give users more choices to configure exclusions
-                orFilter.addFileFilter(new RegexFileFilter(exclusion));
-                orFilter.addFileFilter(new NameFileFilter(exclusion));
-                orFilter.addFileFilter(new WildcardFileFilter(exclusion));
-            } catch (PatternSyntaxException e) {
-                System.err.println("Will skip given exclusion '" + exclude + "' due to " + e);
+                namePatterns.add(exclusion);
             }
         }
         System.err.println("Ignored " + ignoredLines + " lines in your exclusion files as comments or empty lines.");
-        return new NotFileFilter(orFilter);
+        final NamePatternFilter nameFilter = new NamePatternFilter(namePatterns, System.err::println);
+        if (pathPatterns.isEmpty()) {
+            return nameFilter;
+        }
+        final PathPatternFilter pathFilter = new PathPatternFilter(base, pathPatterns);
+        return (dir, name) -> pathFilter.accept(dir, name) && nameFilter.accept(dir, name);
     }
 
-    private static Options buildOptions() {
+    /**
+     * Checks that the argument of a report of the changed files is a directory.  Archives are not git working trees and
+     * the option would otherwise be ignored.
+     * @param cl the parsed command line.
+     * @throws ParseException if {@code --changed-since} is used with an archive.
+     */
+    static void checkChangedSince(CommandLine cl) throws ParseException {
+        String[] args = cl.getArgs();
+        if (cl.hasOption(CHANGED_SINCE) && args != null && args.length == 1 && new File(args[0]).isFile()) {
+            throw new ParseException("--" + CHANGED_SINCE + " requires a directory, " + args[0] + " is a file");
+        }
+    }
+
+    static Options buildOptions() {
         Options opts = new Options();
 
         Option help = new Option(HELP, "help", false, "Print help for the RAT command line interface and exit");
@@ -272,6 +388,35 @@ public class Report {
         opts.addOption(null, LICENSES, true, "File names or URLs for license definitions");
         opts.addOption(null, LIST_LICENSES, false, "List all active licenses");
         opts.addOption(null, LIST_LICENSE_FAMILIES, false, "List all defined license families");
+        opts.addOption(Option.builder().longOpt(THREADS).hasArg().argName("count")
+                .desc("Number of threads used to analyse files. Defaults to 1").build());
+        opts.addOption(Option.builder().longOpt(SCAN_LINE_LIMIT).hasArg().argName("lines")
+                .desc("Maximum number of lines read from each file while looking for a license. Defaults to no limit")
+                .build());
+        opts.addOption(Option.builder().longOpt(SCAN_CHAR_LIMIT).hasArg().argName("chars")
+                .desc("Maximum number of characters read from each file while looking for a license. Defaults to no limit")
+                .build());
+        opts.addOption(Option.builder().longOpt(CACHE_FILE).hasArg().argName("file")
+                .desc("File to cache analysis results in. Unchanged files are not read again on the next run")
+                .build());
+        opts.addOption(Option.builder().longOpt(ARCHIVE_DEPTH).hasArg().argName("levels")
+                .desc("Number of levels of nested archives to scan the entries of. Defaults to 0, archives are not scanned")
+                .build());
+        OptionGroup fileSelection = new OptionGroup();
+        fileSelection.addOption(Option.builder().longOpt(FILES_FROM).hasArg().argName("file")
+                .desc("Only report the files listed in <file>, one per line, or read from standard input if <file> is -. "
+                        + "Relative paths are resolved against the directory argument, which is then optional. "
+                        + "The directory is not walked. Not compatible with --" + CHANGED_SINCE)
+                .build());
+        fileSelection.addOption(Option.builder().longOpt(CHANGED_SINCE).hasArg().argName("ref")
+                .desc("Only report the files of the git working tree changed since the merge base with <ref>, "
+                        + "and the new untracked files. The directory is not walked. Not compatible with --"
+                        + FILES_FROM)
+                .build());
+        opts.addOptionGroup(fileSelection);
+        opts.addOption(Option.builder().longOpt(NULL)
+                .desc("The paths read with --files-from are separated by NUL characters instead of line ends")
+                .build());
 
         OptionGroup addLicenseGroup = new OptionGroup();
         String addLicenseDesc = "Add the default license header to any file with an unknown license that is not in the exclusion list. "
@@ -296,6 +441,7 @@ public class Report {
 
         final Option exclude = Option.builder(EXCLUDE_CLI).argName("expression").longOpt("exclude").hasArgs()
                 .desc("Excludes files matching wildcard <expression>. "
+                        + "Expressions containing '/' match paths relative to the directory, like target/**. "
                         + "Note that --dir is required when using this parameter. " + "Allows multiple arguments.")
                 .build();
         opts.addOption(exclude);
@@ -342,13 +488,30 @@ public class Report {
         // do not instantiate
     }
 
+    /**
+     * Creates an IReportable object that reports the files named in a list.
+     * @param baseDirectory the directory relative paths are resolved against.
+     * @param config the ReportConfiguration.
+     * @param listName the name of the file to read the list from, {@code -} for standard input.
+     * @param nulSeparated {@code true} if the paths are separated by NUL characters.
+     * @return the IReportable instance containing the files.
+     */
+    private static IReportable getFileList(String baseDirectory, ReportConfiguration config, String listName,
+            boolean nulSeparated) {
+        IOSupplier<InputStream> list = "-".equals(listName) ? () -> CloseShieldInputStream.wrap(System.in)
+                : () -> new FileInputStream(listName);
+        return new FileListWalker(new File(baseDirectory), config.getInputFileFilter(), list, nulSeparated,
+                System.err::println);
+    }
+
     /**
      * Creates an IReporatble object from the directory name and ReportConfiguration object.
      * @param baseDirectory the directory that contains the files to report on.
      * @param config the ReportConfiguration.
+     * @param changedSince the git reference to report the changed files since, or null to report all files.
      * @return the IReportale instance containing the files.
      */
-    private static IReportable getDirectory(String baseDirectory, ReportConfiguration config) {
+    private static IReportable getDirectory(String baseDirectory, ReportConfiguration config, String changedSince) {
         try (PrintStream out = new PrintStream(config.getOutput().get())) {
             File base = new File(baseDirectory);
             if (!base.exists()) {
@@ -359,11 +522,15 @@ public class Report {
             }
 
             if (base.isDirectory()) {
+                if (changedSince != null) {
+                    return new ChangedFilesWalker(base, config.getInputFileFilter(), changedSince);
+                }
                 return new DirectoryWalker(base, config.getInputFileFilter());
             }
 
             try {
-                return new ArchiveWalker(base, config.getInputFileFilter());
+                return new ArchiveWalker(base, config.getInputFileFilter(), ArchiveWalker.DEFAULT_PREFIX_LIMIT,
+                        config.getArchiveDepth(), config.getThreads());
             } catch (IOException ex) {
                 out.print("ERROR: ");
                 out.print(baseDirectory);
@@ -27,8 +27,10 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -57,8 +59,75 @@ public class ReportConfiguration {
     private IOSupplier<OutputStream> out = null;
     private boolean styleReport = true;
     private IOSupplier<InputStream> styleSheet = null;
+    private Style style = null;
     private IReportable reportable = null;
     private FilenameFilter inputFileFilter = null;
+    private int threads = 1;
+    private int scanLineLimit = 0;
+    private long scanCharLimit = 0;
+    private File cacheFile = null;
+    private int archiveDepth = 0;
+    private final List<Output> additionalOutputs = new ArrayList<>();
+
+    /**
+     * The built in styles of the report.  A report in a built in style is rendered natively, in constant memory,
+     * instead of applying the style sheet of the style with XSLT.
+     */
+    public enum Style {
+        /** The plain text report. */
+        PLAIN(Defaults.getPlainStyleSheet()),
+        /** The list of the files with unapproved licenses. */
+        UNAPPROVED_LICENSES(Defaults.getUnapprovedLicensesStyleSheet());
+
+        private final IOSupplier<InputStream> styleSheet;
+
+        Style(IOSupplier<InputStream> styleSheet) {
+            this.styleSheet = styleSheet;
+        }
+
+        /**
+         * @return the XSLT style sheet that produces the same output as the style.
+         */
+        public IOSupplier<InputStream> getStyleSheet() {
+            return styleSheet;
+        }
+    }
+
+    /**
+     * An additional output of the report.  Each output is written from the same scan of the reportable.
+     */
+    public static final class Output {
+        private final IOSupplier<OutputStream> out;
+        private final IOSupplier<InputStream> styleSheet;
+        private final Style style;
+
+        private Output(IOSupplier<OutputStream> out, IOSupplier<InputStream> styleSheet, Style style) {
+            this.out = out;
+            this.styleSheet = styleSheet;
+            this.style = style;
+        }
+
+        /**
+         * @return the style sheet to style the output with or {@code null} for the XML report.
+         */
+        public IOSupplier<InputStream> getStyleSheet() {
+            return styleSheet;
+        }
+
+        /**
+         * @return the built in style of the output or {@code null} if the output is not in a built in style.
+         */
+        public Style getStyle() {
+            return style;
+        }
+
+        /**
+         * @return A supplier for a PrintWriter that wraps the output stream.
+         */
+        public IOSupplier<PrintWriter> getWriter() {
+            return () -> new PrintWriter(new OutputStreamWriter(out.get(), Charset.forName("UTF-8")));
+        }
+    }
 
     /**
      * @return The filename filter for the potential input files.
@@ -74,6 +143,100 @@ public class ReportConfiguration {
         this.inputFileFilter = inputFileFilter;
     }
 
+    /**
+     * @return the number of threads used to analyse documents.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads used to analyse documents. Documents are always
+     * reported in the order the {@link IReportable} produces them, whatever the
+     * number of threads.
+     *
+     * @param threads the number of analysis threads, must be at least 1.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return the maximum number of lines read from each document while looking
+     * for a license, 0 if there is no limit.
+     */
+    public int getScanLineLimit() {
+        return scanLineLimit;
+    }
+
+    /**
+     * Sets the maximum number of lines read from each document while looking for
+     * a license. Once the limit is reached the license state is finalized as if
+     * the end of the document had been reached.
+     *
+     * @param scanLineLimit the maximum number of lines, 0 for no limit.
+     */
+    public void setScanLineLimit(int scanLineLimit) {
+        this.scanLineLimit = scanLineLimit;
+    }
+
+    /**
+     * @return the maximum number of characters read from each document while
+     * looking for a license, 0 if there is no limit.
+     */
+    public long getScanCharLimit() {
+        return scanCharLimit;
+    }
+
+    /**
+     * Sets the maximum number of characters read from each document while looking
+     * for a license. Once the limit is reached the license state is finalized as
+     * if the end of the document had been reached.
+     *
+     * @param scanCharLimit the maximum number of characters, 0 for no limit.
+     */
+    public void setScanCharLimit(long scanCharLimit) {
+        this.scanCharLimit = scanCharLimit;
+    }
+
+    /**
+     * @return the file the analysis results are cached in, or null if the cache is not used.
+     */
+    public File getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * Sets the file the analysis results are cached in between runs. Documents
+     * held in files whose path, size and modification time match the cache are
+     * not read again as long as the license configuration is unchanged.
+     *
+     * @param cacheFile the cache file, or null to not use a cache.
+     */
+    public void setCacheFile(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @return the number of levels of nested archives to descend into, 0 if
+     * archives are only reported as a whole.
+     */
+    public int getArchiveDepth() {
+        return archiveDepth;
+    }
+
+    /**
+     * Sets the number of levels of nested archives to descend into. Entries of
+     * archives are reported with composite names such as
+     * {@code a.tar.gz!/lib/x.jar!/Foo.java}.
+     *
+     * @param archiveDepth the depth limit, 0 (the default) to only report
+     * archives as a whole.
+     */
+    public void setArchiveDepth(int archiveDepth) {
+        this.archiveDepth = archiveDepth;
+    }
+
     /**
      * @return the thing being reported on.
      */
@@ -96,10 +259,30 @@ public class ReportConfiguration {
     }
 
     /**
+     * Sets the XSLT style sheet to style the report with.  The style sheet is applied with XSLT even if it is the
+     * style sheet of a built in style, use {@link #setStyle(Style)} to render a built in style natively.
      * @param styleSheet the XSLT style sheet to style the report with.
      */
     public void setStyleSheet(IOSupplier<InputStream> styleSheet) {
         this.styleSheet = styleSheet;
+        this.style = null;
+    }
+
+    /**
+     * @return the built in style of the report or {@code null} if the report is not in a built in style.
+     */
+    public Style getStyle() {
+        return style;
+    }
+
+    /**
+     * Sets a built in style of the report.  The style sheet of the report is set to the style sheet of the style.
+     * @param style the built in style of the report.
+     */
+    public void setStyle(Style style) {
+        Objects.requireNonNull(style, "style should not be null");
+        this.styleSheet = style.getStyleSheet();
+        this.style = style;
     }
 
     /**
@@ -113,7 +296,7 @@ public class ReportConfiguration {
         addLicenses(defaults.getLicenses(LicenseFilter.all));
         addApprovedLicenseCategories(defaults.getLicenseIds(LicenseFilter.approved));
         if (isStyleReport() && getStyleSheet() == null) {
-            setStyleSheet(Defaults.getPlainStyleSheet());
+            setStyle(Style.PLAIN);
         }
     }
 
@@ -178,6 +361,36 @@ public class ReportConfiguration {
         return () -> new PrintWriter(new OutputStreamWriter(getOutput().get(), Charset.forName("UTF-8")));
     }
 
+    /**
+     * Adds an output that is written in addition to the main report.  All outputs are produced from a single scan
+     * of the reportable.
+     * @param out The OutputStream supplier that provides the output stream to write the output to.
+     * @param styleSheet the style sheet to style the output with or {@code null} to write the XML report.
+     */
+    public void addOutput(IOSupplier<OutputStream> out, IOSupplier<InputStream> styleSheet) {
+        Objects.requireNonNull(out, "output should not be null");
+        additionalOutputs.add(new Output(out, styleSheet, null));
+    }
+
+    /**
+     * Adds an output in a built in style that is written in addition to the main report.
+     * @param out The OutputStream supplier that provides the output stream to write the output to.
+     * @param style the built in style of the output.
+     * @see #addOutput(IOSupplier, IOSupplier)
+     */
+    public void addOutput(IOSupplier<OutputStream> out, Style style) {
+        Objects.requireNonNull(out, "output should not be null");
+        Objects.requireNonNull(style, "style should not be null");
+        additionalOutputs.add(new Output(out, style.getStyleSheet(), style));
+    }
+
+    /**
+     * @return the outputs that are written in addition to the main report.
+     */
+    public List<Output> getAdditionalOutputs() {
+        return Collections.unmodifiableList(additionalOutputs);
+    }
+
     /**
      * Adds a license to the list of licenses. Does not add the license to the list
      * of approved licenses.
@@ -375,6 +588,15 @@ public class ReportConfiguration {
         if (reportable == null) {
             throw new ConfigurationException("Reportable may not be null");
         }
+        if (threads < 1) {
+            throw new ConfigurationException("Threads must be at least 1");
+        }
+        if (scanLineLimit < 0 || scanCharLimit < 0) {
+            throw new ConfigurationException("Scan limits may not be less than zero");
+        }
+        if (archiveDepth < 0) {
+            throw new ConfigurationException("Archive depth may not be less than zero");
+        }
         if (licenses.size() == 0) {
             throw new ConfigurationException("You must specify at least one license");
         }
@@ -26,6 +26,8 @@ import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -64,4 +66,25 @@ class ReportTransformer implements Runnable {
         transformer.transform(new StreamSource(in), new StreamResult(out));
     }
 
+    /**
+     * Creates a handler that applies the style sheet to the SAX events it receives.  This avoids serializing the
+     * report and parsing it again.
+     * @param out the writer to write the styled report to.
+     * @param style the style sheet to apply.
+     * @return the handler to send the report to.
+     * @throws TransformerConfigurationException if the style sheet can not be compiled or the XSLT implementation
+     * does not support SAX input.
+     */
+    static TransformerHandler newHandler(final Writer out, final InputStream style)
+            throws TransformerConfigurationException {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        if (!factory.getFeature(SAXTransformerFactory.FEATURE)) {
+            throw new TransformerConfigurationException(
+                    factory.getClass().getName() + " does not support SAX transformations");
+        }
+        TransformerHandler handler = ((SAXTransformerFactory) factory).newTransformerHandler(new StreamSource(style));
+        handler.setResult(new StreamResult(out));
+        return handler;
+    }
+
 }
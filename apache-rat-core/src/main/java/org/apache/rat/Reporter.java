@@ -20,17 +20,26 @@ package org.apache.rat;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedReader;
-import java.io.PipedWriter;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.xml.transform.TransformerConfigurationException;
+
+import org.apache.commons.io.function.IOSupplier;
 import org.apache.rat.api.RatException;
-import org.apache.rat.report.RatReport;
 import org.apache.rat.report.claim.ClaimStatistic;
+import org.apache.rat.report.claim.util.ClaimReporterMultiplexer;
+import org.apache.rat.report.text.PlainTextRenderer;
+import org.apache.rat.report.text.UnapprovedLicensesRenderer;
 import org.apache.rat.report.xml.XmlReportFactory;
 import org.apache.rat.report.xml.writer.IXmlWriter;
+import org.apache.rat.report.xml.writer.XmlWriterMultiplexer;
 import org.apache.rat.report.xml.writer.impl.base.XmlWriter;
+import org.apache.rat.report.xml.writer.impl.sax.SaxXmlWriter;
+import org.apache.rat.walker.NestedArchiveReport;
+import org.xml.sax.ContentHandler;
 
 /**
  * Class the executes the report as defined in a ReportConfiguration.
@@ -50,43 +59,132 @@ public class Reporter {
      */
     public static ClaimStatistic report(ReportConfiguration configuration) throws Exception {
         if (configuration.getReportable() != null) {
-            if (configuration.isStyleReport()) {
-                try (PipedReader reader = new PipedReader();
-                        PipedWriter writer = new PipedWriter(reader);
-                        InputStream style = configuration.getStyleSheet().get();
-                        PrintWriter reportWriter = configuration.getWriter().get();) {
-                    ReportTransformer transformer = new ReportTransformer(reportWriter, style, reader);
-                    Thread transformerThread = new Thread(transformer);
-                    transformerThread.start();
-                    final ClaimStatistic statistic = report(writer, configuration);
-                    writer.flush();
-                    writer.close();
-                    transformerThread.join();
-                    return statistic;
+            List<Writer> outputs = new ArrayList<>();
+            Throwable failure = null;
+            try {
+                List<IXmlWriter> xmlWriters = new ArrayList<>();
+                PrintWriter reportWriter = configuration.getWriter().get();
+                outputs.add(reportWriter);
+                if (configuration.isStyleReport()) {
+                    xmlWriters.add(createXmlWriter(configuration.getStyle(), configuration.getStyleSheet(),
+                            reportWriter));
+                } else {
+                    xmlWriters.add(createXmlWriter(null, null, reportWriter));
                 }
-            }
-            try (Writer writer = configuration.getWriter().get()) {
-                return report(writer, configuration);
+                for (ReportConfiguration.Output output : configuration.getAdditionalOutputs()) {
+                    PrintWriter outputWriter = output.getWriter().get();
+                    outputs.add(outputWriter);
+                    xmlWriters.add(createXmlWriter(output.getStyle(), output.getStyleSheet(), outputWriter));
+                }
+                return report(xmlWriters.size() == 1 ? xmlWriters.get(0) : new XmlWriterMultiplexer(xmlWriters),
+                        configuration);
+            } catch (Throwable e) {
+                failure = e;
+                throw e;
+            } finally {
+                close(outputs, failure);
             }
         }
         return null;
     }
 
+    /**
+     * Closes every output, even if closing one of them fails.
+     * @param outputs the outputs to close.
+     * @param failure the failure of the report, or {@code null} if the report succeeded.  The failures to close
+     * the outputs are added to it as suppressed exceptions.
+     * @throws Exception the first failure to close an output if the report succeeded.
+     */
+    private static void close(List<Writer> outputs, Throwable failure) throws Exception {
+        Exception closeFailure = null;
+        for (Writer output : outputs) {
+            try {
+                output.close();
+            } catch (IOException | RuntimeException e) {
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                } else if (closeFailure == null) {
+                    closeFailure = e;
+                } else {
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    /**
+     * Creates the XML writer for an output.
+     * @param style the built in style of the output or {@code null} if it is not in a built in style.
+     * @param styleSheet the style sheet to apply or {@code null} to write the XML report.
+     * @param writer the writer to write the output to.
+     * @return the XML writer to send the report to.
+     * @throws IOException if the style sheet can not be read.
+     * @throws TransformerConfigurationException if the style sheet can not be compiled.
+     */
+    private static IXmlWriter createXmlWriter(ReportConfiguration.Style style, IOSupplier<InputStream> styleSheet,
+            Writer writer) throws IOException, TransformerConfigurationException {
+        if (style == null && styleSheet == null) {
+            return new XmlWriter(writer, true);
+        }
+        // the report is passed to the renderer or the style sheet as SAX events.
+        return new SaxXmlWriter(createHandler(style, styleSheet, writer));
+    }
+
+    /**
+     * Creates the handler that styles the report.  The built in styles are rendered natively, in constant memory.
+     * Other style sheets are applied with XSLT.
+     * @param style the built in style of the output or {@code null} if it is not in a built in style.
+     * @param styleSheet the style sheet to apply if the output is not in a built in style.
+     * @param writer the writer to write the styled report to.
+     * @return the handler to send the report to.
+     * @throws IOException if the style sheet can not be read.
+     * @throws TransformerConfigurationException if the style sheet can not be compiled.
+     */
+    private static ContentHandler createHandler(ReportConfiguration.Style style, IOSupplier<InputStream> styleSheet,
+            Writer writer) throws IOException, TransformerConfigurationException {
+        if (style != null) {
+            switch (style) {
+            case PLAIN:
+                return new PlainTextRenderer(writer);
+            case UNAPPROVED_LICENSES:
+                return new UnapprovedLicensesRenderer(writer);
+            default:
+                throw new IllegalArgumentException("Unknown style " + style);
+            }
+        }
+        try (InputStream in = styleSheet.get()) {
+            return ReportTransformer.newHandler(writer, in);
+        }
+    }
+
     /**
      * Execute the report.
-     * @param coutputWriter the writer to send output to.
+     * @param xmlWriter the XML writer to send output to.
      * @param configuration The report configuration..
      * @return the currently collected numerical statistics.
      * @throws IOException in case of I/O errors.
      * @throws RatException in case of internal errors.
      */
-    private static ClaimStatistic report(Writer outputWriter, ReportConfiguration configuration)
+    private static ClaimStatistic report(IXmlWriter xmlWriter, ReportConfiguration configuration)
             throws IOException, RatException {
-        try (IXmlWriter writer = new XmlWriter(outputWriter)) {
+        try (IXmlWriter writer = xmlWriter) {
             final ClaimStatistic statistic = new ClaimStatistic();
-            RatReport report = XmlReportFactory.createStandardReport(writer, statistic, configuration);
+            ClaimReporterMultiplexer report = XmlReportFactory.createStandardReport(writer, statistic,
+                    configuration);
             report.startReport();
-            configuration.getReportable().run(report);
+            try {
+                configuration.getReportable().run(configuration.getArchiveDepth() > 0
+                        ? new NestedArchiveReport(report, configuration.getInputFileFilter(),
+                                configuration.getArchiveDepth())
+                        : report);
+            } catch (Throwable e) {
+                // the threads of the pipeline are stopped when the documents can not all be walked.
+                report.abort();
+                throw e;
+            }
             report.endReport();
 
             return statistic;
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of a set of patterns in a single pass over the text.
+ * <p>
+ * Patterns are identified by their position in the list provided to the constructor.  The automaton is immutable
+ * once constructed.
+ */
+public final class AhoCorasickAutomaton {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    /** The sorted transition characters for each state. */
+    private final char[][] keys;
+    /** The target states matching the {@code keys} for each state. */
+    private final int[][] targets;
+    /** The failure link for each state. */
+    private final int[] failure;
+    /** The patterns recognised when each state is entered. */
+    private final int[][] outputs;
+    /** The number of patterns. */
+    private final int size;
+
+    /**
+     * Constructs the automaton.
+     * @param patterns the patterns to search for.  May not contain empty patterns.
+     */
+    public AhoCorasickAutomaton(List<String> patterns) {
+        this.size = patterns.size();
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> found = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        found.add(new ArrayList<>());
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern may not be empty");
+            }
+            int state = 0;
+            for (char c : pattern.toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    found.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            found.get(state).add(i);
+        }
+
+        int stateCount = trie.size();
+        keys = new char[stateCount][];
+        targets = new int[stateCount][];
+        failure = new int[stateCount];
+        outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            Map<Character, Integer> transitions = trie.get(state);
+            keys[state] = new char[transitions.size()];
+            targets[state] = new int[transitions.size()];
+            int idx = 0;
+            for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+                keys[state][idx] = entry.getKey();
+                targets[state][idx++] = entry.getValue();
+            }
+        }
+
+        // breadth first so that the failure state is always complete before it is used.
+        Deque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = NO_OUTPUT;
+        for (int child : targets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            List<Integer> own = found.get(state);
+            int[] inherited = outputs[failure[state]];
+            if (own.isEmpty()) {
+                outputs[state] = inherited;
+            } else {
+                int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+                for (int i = 0; i < own.size(); i++) {
+                    merged[inherited.length + i] = own.get(i);
+                }
+                outputs[state] = merged;
+            }
+            for (int i = 0; i < keys[state].length; i++) {
+                int child = targets[state][i];
+                int fallback = failure[state];
+                int next = transition(fallback, keys[state][i]);
+                while (next < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                    next = transition(fallback, keys[state][i]);
+                }
+                failure[child] = next < 0 ? 0 : next;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return the number of patterns in this automaton.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Locates the patterns that occur in the text.
+     * @param text the text to search.
+     * @param found the set to add the index of each pattern found in the text to.
+     */
+    public void search(CharSequence text, BitSet found) {
+        int state = 0;
+        for (int pos = 0; pos < text.length(); pos++) {
+            char c = text.charAt(pos);
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = transition(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            for (int pattern : outputs[state]) {
+                found.set(pattern);
+            }
+        }
+    }
+
+    /**
+     * Gets the direct transition from a state.
+     * @param state the state to move from.
+     * @param c the character read.
+     * @return the next state or -1 if there is no transition for the character.
+     */
+    private int transition(int state, char c) {
+        int idx = Arrays.binarySearch(keys[state], c);
+        return idx < 0 ? -1 : targets[state][idx];
+    }
+}
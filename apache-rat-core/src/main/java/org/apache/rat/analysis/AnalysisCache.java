@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.rat.api.Document;
+import org.apache.rat.api.MetaData;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.IDocumentAnalyser;
+import org.apache.rat.document.RatDocumentAnalysisException;
+import org.apache.rat.report.AbstractReport;
+
+/**
+ * An analyser that caches the results of another analyser in a file between runs.
+ * <p>
+ * The meta data produced for each document held in a file is recorded against the path, size and modification
+ * time of the file.  On the next run documents whose file is unchanged have the recorded meta data replayed and are
+ * not read.  The cache is discarded if the fingerprint of the analysis configuration differs from the one the cache
+ * was written with.
+ * <p>
+ * The cache is also a report: it is read when the report starts and written when the report ends.  Only the
+ * documents seen during the run are written, so documents that no longer exist are dropped from the cache.  An
+ * unreadable cache file is ignored.
+ */
+public class AnalysisCache extends AbstractReport implements IDocumentAnalyser {
+
+    /** The version of the cache file format. */
+    private static final int FORMAT_VERSION = 1;
+
+    private final File cacheFile;
+    private final String fingerprint;
+    private final IDocumentAnalyser analyser;
+    /** The entries read from the cache file. */
+    private Map<String, Entry> previous;
+    /** The entries for the documents seen in this run. */
+    private final Map<String, Entry> current;
+    /** The time the report started, files modified later are not cached. */
+    private long startTime;
+
+    /**
+     * Constructs the cache.
+     * @param cacheFile the file to store the cache in.
+     * @param fingerprint the fingerprint of the analysis configuration.
+     * @param analyser the analyser to cache the results of.
+     */
+    public AnalysisCache(File cacheFile, String fingerprint, IDocumentAnalyser analyser) {
+        this.cacheFile = cacheFile;
+        this.fingerprint = fingerprint;
+        this.analyser = analyser;
+        this.previous = Collections.emptyMap();
+        this.current = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void startReport() throws RatException {
+        startTime = System.currentTimeMillis();
+        current.clear();
+        previous = read();
+    }
+
+    @Override
+    public void endReport() throws RatException {
+        try {
+            write();
+        } catch (IOException e) {
+            throw new RatException("Cannot write cache file " + cacheFile, e);
+        }
+    }
+
+    @Override
+    public void analyse(Document document) throws RatDocumentAnalysisException {
+        final File file = document.getFile();
+        final BasicFileAttributes attributes = file == null ? null : readAttributes(document);
+        if (attributes == null) {
+            analyser.analyse(document);
+            return;
+        }
+        final String key = file.getAbsolutePath();
+        Entry entry = lookup(key, attributes);
+        if (entry != null) {
+            entry.data.forEach(document.getMetaData()::add);
+        } else {
+            analyser.analyse(document);
+            final long modified = attributes.lastModifiedTime().toMillis();
+            // a file changed during the run may change again within the resolution of the modification time.
+            if (modified >= startTime) {
+                return;
+            }
+            entry = new Entry(attributes.size(), modified, new ArrayList<>(document.getMetaData().getData()));
+        }
+        current.put(key, entry);
+    }
+
+    /**
+     * Documents whose file is unchanged since the cache was written are not read.
+     */
+    @Override
+    public boolean readsContent(Document document) {
+        final File file = document.getFile();
+        final BasicFileAttributes attributes = file == null ? null : readAttributes(document);
+        if (attributes != null && lookup(file.getAbsolutePath(), attributes) != null) {
+            return false;
+        }
+        return analyser.readsContent(document);
+    }
+
+    /**
+     * @param document a document held in a file.
+     * @return the attributes of the file of the document, or null if they can not be read.
+     */
+    private static BasicFileAttributes readAttributes(Document document) {
+        final BasicFileAttributes attributes = document.getFileAttributes();
+        if (attributes != null) {
+            return attributes;
+        }
+        try {
+            return Files.readAttributes(document.getFile().toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param key the absolute path of the file.
+     * @param attributes the attributes of the file.
+     * @return the cached entry for the file, or null if there is none or the file changed since it was cached.
+     */
+    private Entry lookup(String key, BasicFileAttributes attributes) {
+        final Entry entry = previous.get(key);
+        if (entry != null && entry.size == attributes.size()
+                && entry.modified == attributes.lastModifiedTime().toMillis()) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the cache file.
+     * @return the entries in the cache file, empty if the file does not exist, can not be read or was written for
+     * a different fingerprint.
+     */
+    private Map<String, Entry> read() {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION || !fingerprint.equals(readString(in))) {
+                return Collections.emptyMap();
+            }
+            int count = in.readInt();
+            Map<String, Entry> result = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String key = readString(in);
+                long size = in.readLong();
+                long modified = in.readLong();
+                int datumCount = in.readInt();
+                List<MetaData.Datum> data = new ArrayList<>(datumCount);
+                for (int j = 0; j < datumCount; j++) {
+                    data.add(new MetaData.Datum(readString(in), readString(in)));
+                }
+                result.put(key, new Entry(size, modified, data));
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // a missing or damaged cache only costs a full scan.
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Writes the entries for the documents seen in this run to the cache file.
+     * The file is replaced once it has been written completely.
+     * @throws IOException on error.
+     */
+    private void write() throws IOException {
+        final File dir = cacheFile.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        final File tmp = File.createTempFile(cacheFile.getName(), ".tmp", dir);
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, fingerprint);
+                Map<String, Entry> sorted = new TreeMap<>(current);
+                out.writeInt(sorted.size());
+                for (Map.Entry<String, Entry> mapEntry : sorted.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    writeString(out, mapEntry.getKey());
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.modified);
+                    out.writeInt(entry.data.size());
+                    for (MetaData.Datum datum : entry.data) {
+                        writeString(out, datum.getName());
+                        writeString(out, datum.getValue());
+                    }
+                }
+            }
+            Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * The cached result for a single file.
+     */
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        private final List<MetaData.Datum> data;
+
+        private Entry(long size, long modified, List<MetaData.Datum> data) {
+            this.size = size;
+            this.modified = modified;
+            this.data = data;
+        }
+    }
+}
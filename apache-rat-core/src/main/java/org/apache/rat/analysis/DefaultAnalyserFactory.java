@@ -18,8 +18,16 @@
  */
 package org.apache.rat.analysis;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.Collection;
 
+import org.apache.commons.io.IOUtils;
+
 import org.apache.rat.ConfigurationException;
 import org.apache.rat.api.Document;
 import org.apache.rat.api.MetaData;
@@ -41,10 +49,39 @@ public class DefaultAnalyserFactory {
      * @return A document analyser that uses the provides licenses.
      */
     public static final IDocumentAnalyser createDefaultAnalyser(Collection<ILicense> licenses) {
+        return createDefaultAnalyser(licenses, HeaderCheckWorker.NO_SCAN_LIMIT, HeaderCheckWorker.NO_SCAN_LIMIT);
+    }
+
+    /**
+     * Creates a DocumentAnalyser from a collection of ILicenses that stops reading a
+     * document once either scan limit is reached.
+     * @param licenses The licenses to use in  the Analyser.
+     * @param scanLineLimit the maximum number of lines to read from a document, 0 for no limit.
+     * @param scanCharLimit the maximum number of characters to read from a document, 0 for no limit.
+     * @return A document analyser that uses the provides licenses.
+     */
+    public static final IDocumentAnalyser createDefaultAnalyser(Collection<ILicense> licenses, int scanLineLimit,
+            long scanCharLimit) {
         if (licenses.size() ==0) {
             throw new ConfigurationException("At least one license must be defined");
         }
-        return new DefaultAnalyser(new LicenseCollection(licenses));
+        return new DefaultAnalyser(new MatchingEngine(licenses), scanLineLimit, scanCharLimit);
+    }
+
+    /**
+     * Creates a fingerprint of the configuration of an analyser created by this factory, from the engine that the
+     * analyser matches the licenses with.  Analysers with the same fingerprint produce the same results for the same
+     * documents.
+     * @param analyser an analyser created by this factory.
+     * @return the fingerprint.
+     * @throws IllegalArgumentException if the analyser was not created by this factory.
+     * @see AnalysisCache
+     */
+    public static final String fingerprint(IDocumentAnalyser analyser) {
+        if (!(analyser instanceof DefaultAnalyser)) {
+            throw new IllegalArgumentException("Analyser was not created by DefaultAnalyserFactory: " + analyser);
+        }
+        return ((DefaultAnalyser) analyser).fingerprint();
     }
 
     /**
@@ -53,16 +90,38 @@ public class DefaultAnalyserFactory {
     private final static class DefaultAnalyser implements IDocumentAnalyser {
 
         /**
-         * The license to analyze
+         * The engine that matches the licenses to analyze.
+         */
+        private final MatchingEngine engine;
+
+        /**
+         * The maximum number of lines to read from a document.
+         */
+        private final int scanLineLimit;
+
+        /**
+         * The maximum number of characters to read from a document.
+         */
+        private final long scanCharLimit;
+
+        /**
+         * Constructs a DocumentAnalyser for the specified licenses.
+         * @param engine The engine that matches the licenses to analyse
+         * @param scanLineLimit the maximum number of lines to read from a document.
+         * @param scanCharLimit the maximum number of characters to read from a document.
          */
-        private final ILicense license;
+        public DefaultAnalyser(final MatchingEngine engine, final int scanLineLimit, final long scanCharLimit) {
+            this.engine = engine;
+            this.scanLineLimit = scanLineLimit;
+            this.scanCharLimit = scanCharLimit;
+        }
 
         /**
-         * Constructs a DocumentAnalyser for the specified license.
-         * @param license The license to analyse
+         * @return the fingerprint of the engine, the scan limits and the charset the documents are read with.
          */
-        public DefaultAnalyser(final ILicense license) {
-            this.license = license;
+        String fingerprint() {
+            return String.format("%s:%s:%s:%s", engine.fingerprint(), scanLineLimit, scanCharLimit,
+                    Charset.defaultCharset().name());
         }
 
         @Override
@@ -72,14 +131,55 @@ public class DefaultAnalyserFactory {
                 documentCategory = MetaData.RAT_DOCUMENT_CATEGORY_DATUM_NOTICE;
             } else if (ArchiveGuesser.isArchive(document)) {
                 documentCategory = MetaData.RAT_DOCUMENT_CATEGORY_DATUM_ARCHIVE;
-            } else if (BinaryGuesser.isBinary(document)) {
+            } else if (BinaryGuesser.isBinary(document.getName())) {
                 documentCategory = MetaData.RAT_DOCUMENT_CATEGORY_DATUM_BINARY;
             } else {
-                documentCategory = MetaData.RAT_DOCUMENT_CATEGORY_DATUM_STANDARD;
-                final DocumentHeaderAnalyser headerAnalyser = new DocumentHeaderAnalyser(license);
-                headerAnalyser.analyse(document);
+                documentCategory = analyseContent(document);
             }
             document.getMetaData().set(documentCategory);
         }
+
+        /**
+         * Notes, archives and documents that are binary by name are categorised without reading them.
+         */
+        @Override
+        public boolean readsContent(Document document) {
+            return !NoteGuesser.isNote(document) && !ArchiveGuesser.isArchive(document)
+                    && !BinaryGuesser.isBinary(document.getName());
+        }
+
+        /**
+         * Opens the document once, tastes the start of the content to detect binary
+         * documents and then analyses the header of non binary documents from the
+         * same stream.
+         * @param document the document to analyse.
+         * @return the category of the document.
+         * @throws RatDocumentAnalysisException if the document can not be read.
+         */
+        private MetaData.Datum analyseContent(Document document) throws RatDocumentAnalysisException {
+            try (InputStream in = new BufferedInputStream(document.inputStream())) {
+                in.mark(BinaryGuesser.TASTE_LENGTH);
+                byte[] taste = new byte[BinaryGuesser.TASTE_LENGTH];
+                boolean binary = BinaryGuesser.isBinary(taste, IOUtils.read(in, taste));
+                in.reset();
+                if (binary) {
+                    return MetaData.RAT_DOCUMENT_CATEGORY_DATUM_BINARY;
+                }
+                final DocumentHeaderAnalyser headerAnalyser = new DocumentHeaderAnalyser(new LicenseCollection(engine),
+                        scanLineLimit, scanCharLimit);
+                final Reader reader = new InputStreamReader(in, Charset.defaultCharset());
+                if (engine.isThreadSafe()) {
+                    headerAnalyser.analyse(document, reader);
+                } else {
+                    // matchers unknown to the engine keep the state of the document being matched.
+                    synchronized (engine) {
+                        headerAnalyser.analyse(document, reader);
+                    }
+                }
+                return MetaData.RAT_DOCUMENT_CATEGORY_DATUM_STANDARD;
+            } catch (IOException e) {
+                throw new RatDocumentAnalysisException("Cannot read header", e);
+            }
+        }
     }
 }
@@ -36,24 +36,65 @@ class DocumentHeaderAnalyser implements IDocumentAnalyser {
      */
     private final ILicense license;
 
+    /**
+     * The maximum number of lines to read from the document.
+     */
+    private final int scanLineLimit;
+
+    /**
+     * The maximum number of characters to read from the document.
+     */
+    private final long scanCharLimit;
+
     /**
      * Constructs the HeaderAnalyser for the specific license.
      * 
      * @param license The license to analyse
      */
     public DocumentHeaderAnalyser(final ILicense license) {
+        this(license, HeaderCheckWorker.NO_SCAN_LIMIT, HeaderCheckWorker.NO_SCAN_LIMIT);
+    }
+
+    /**
+     * Constructs the HeaderAnalyser for the specific license that reads at most
+     * the specified number of lines and characters from each document.
+     * 
+     * @param license The license to analyse
+     * @param scanLineLimit the maximum number of lines to read.
+     * @param scanCharLimit the maximum number of characters to read.
+     * @see HeaderCheckWorker#NO_SCAN_LIMIT
+     */
+    public DocumentHeaderAnalyser(final ILicense license, final int scanLineLimit, final long scanCharLimit) {
         super();
         this.license = license;
+        this.scanLineLimit = scanLineLimit;
+        this.scanCharLimit = scanCharLimit;
     }
 
     @Override
     public void analyse(Document document) throws RatDocumentAnalysisException {
         try (Reader reader = document.reader()) {
-            // TODO: worker function should be moved into this class
-            HeaderCheckWorker worker = new HeaderCheckWorker(reader, license, document);
-            worker.read();
+            analyse(document, reader);
         } catch (IOException e) {
             throw new RatDocumentAnalysisException("Cannot read header", e);
+        }
+    }
+
+    /**
+     * Analyses the document header read from an already opened reader.
+     * The reader is not closed.
+     * 
+     * @param document the document being analysed.
+     * @param reader the reader positioned at the start of the document content.
+     * @throws RatDocumentAnalysisException if the header can not be analysed.
+     */
+    void analyse(Document document, Reader reader) throws RatDocumentAnalysisException {
+        try {
+            // TODO: worker function should be moved into this class
+            HeaderCheckWorker worker = new HeaderCheckWorker(reader,
+                    HeaderCheckWorker.DEFAULT_NUMBER_OF_RETAINED_HEADER_LINES, scanLineLimit, scanCharLimit, license,
+                    document);
+            worker.read();
         } catch (RatHeaderAnalysisException e) {
             throw new RatDocumentAnalysisException("Cannot analyse header", e);
         }
@@ -37,7 +37,6 @@ import org.apache.rat.license.ILicense;
 class HeaderCheckWorker {
 
     /* TODO revisit this class.  It is only used in one place and can be moved inline as the DocumentHeaderAnalyser states.
-     * However, it may also be possible to make the entire set threadsafe so that multiple files can be checked simultaneously.
      */
     /**
      * The default number of header lines to read while looking for the license
@@ -45,12 +44,22 @@ class HeaderCheckWorker {
      */
     public static final int DEFAULT_NUMBER_OF_RETAINED_HEADER_LINES = 50;
 
+    /**
+     * The value of a scan limit that indicates the document is scanned to the end.
+     */
+    public static final int NO_SCAN_LIMIT = 0;
+
     private final int numberOfRetainedHeaderLines;
+    private final int scanLineLimit;
+    private final long scanCharLimit;
     private final BufferedReader reader;
     private final ILicense license;
     private final Document document;
 
     private int headerLinesToRead;
+    private int linesRead;
+    private long charsRead;
+    private boolean noMatchPossible;
     private boolean finished = false;
 
     /**
@@ -76,13 +85,42 @@ class HeaderCheckWorker {
      */
     public HeaderCheckWorker(Reader reader, int numberOfRetainedHeaderLine, final ILicense license,
             final Document name) {
+        this(reader, numberOfRetainedHeaderLine, NO_SCAN_LIMIT, NO_SCAN_LIMIT, license, name);
+    }
+
+    /**
+     * Constructs a check worker for the license against the specified document
+     * that stops matching once either scan limit is reached. The state of the
+     * license is then finalized as if the end of the document had been reached,
+     * lines are only read further to complete the header sample.
+     * 
+     * @param reader The reader on the document. not null.
+     * @param numberOfRetainedHeaderLine the maximum number of lines to retain as
+     * the header sample when no license is found.
+     * @param scanLineLimit the maximum number of lines to read, or
+     * {@link #NO_SCAN_LIMIT}.
+     * @param scanCharLimit the maximum number of characters to read, line
+     * terminators counting as one character, or {@link #NO_SCAN_LIMIT}.
+     * @param license The license to check against. not null.
+     * @param name The document that is being checked. possibly null
+     */
+    public HeaderCheckWorker(Reader reader, int numberOfRetainedHeaderLine, int scanLineLimit, long scanCharLimit,
+            final ILicense license, final Document name) {
         Objects.requireNonNull(reader, "Reader may not be null");
         Objects.requireNonNull(license, "License may not be null");
         if (numberOfRetainedHeaderLine < 0) {
             throw new ConfigurationException("numberOfRetainedHeaderLine may not be less than zero");
         }
+        if (scanLineLimit < 0) {
+            throw new ConfigurationException("scanLineLimit may not be less than zero");
+        }
+        if (scanCharLimit < 0) {
+            throw new ConfigurationException("scanCharLimit may not be less than zero");
+        }
         this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
         this.numberOfRetainedHeaderLines = numberOfRetainedHeaderLine;
+        this.scanLineLimit = scanLineLimit;
+        this.scanCharLimit = scanCharLimit;
         this.license = license;
         this.document = name;
     }
@@ -103,6 +141,9 @@ class HeaderCheckWorker {
         if (!finished) {
             final StringBuilder headers = new StringBuilder();
             headerLinesToRead = numberOfRetainedHeaderLines;
+            linesRead = 0;
+            charsRead = 0;
+            noMatchPossible = false;
             try {
                 while (readLine(headers)) {
                     // do nothing
@@ -129,16 +170,38 @@ class HeaderCheckWorker {
                 headers.append(line);
                 headers.append('\n');
             }
+            if (noMatchPossible) {
+                // only reading to complete the header sample.
+                return headerLinesToRead > 0;
+            }
             switch (license.matches(line)) {
             case t:
                 result = false;
                 break;
             case f:
+                noMatchPossible = true;
+                result = headerLinesToRead > 0;
+                break;
             case i:
-                result = true;
+                if (isScanLimitReached(line)) {
+                    noMatchPossible = true;
+                    result = headerLinesToRead > 0;
+                }
                 break;
             }
         }
         return result;
     }
+
+    /**
+     * Counts the line against the scan limits.
+     * @param line the line that was read.
+     * @return {@code true} if no more lines should be read.
+     */
+    private boolean isScanLimitReached(String line) {
+        linesRead++;
+        charsRead += line.length() + 1;
+        return (scanLineLimit != NO_SCAN_LIMIT && linesRead >= scanLineLimit)
+                || (scanCharLimit != NO_SCAN_LIMIT && charsRead >= scanCharLimit);
+    }
 }
@@ -20,90 +20,62 @@ package org.apache.rat.analysis;
 
 import java.util.Collection;
 
-import org.apache.rat.analysis.matchers.AbstractMatcherContainer;
+import org.apache.rat.analysis.matchers.AbstractHeaderMatcher;
 import org.apache.rat.license.ILicense;
 import org.apache.rat.license.ILicenseFamily;
 
 /**
  * A collection of ILicenses that acts as a single License for purposes of Analysis.
  * <p>
- * This class process each license in turn on each {@code matches(String)} call.  When a match is found the 
- * ILicenseFamily for the matching license is captured and used as the family for this license. If no matching 
- * license has been found the default {@code dummy} license category is used.
+ * This class matches all the licenses together on each {@code matches(String)} call using a
+ * {@link MatchingEngine}.  When a match is found the ILicenseFamily for the matching license is captured and used as
+ * the family for this license. If no matching license has been found the default {@code dummy} license category is
+ * used.
+ * <p>
+ * Each instance holds the state of a single document being matched. Instances created from the same thread safe
+ * engine may be used concurrently.
  */
-class LicenseCollection extends AbstractMatcherContainer implements ILicense {
+class LicenseCollection extends AbstractHeaderMatcher implements ILicense {
 
     private static final ILicenseFamily DEFAULT = ILicenseFamily.builder().setLicenseFamilyCategory("Dummy")
             .setLicenseFamilyName("HeaderMatcherCollection default license family").build();
-    private Collection<ILicense> enclosed;
-    private ILicense matchingLicense;
-    private State lastState;
+    private final MatchingEngine.Evaluation evaluation;
 
     /**
      * Constructs the LicenseCollection from the provided ILicense collection.
      * @param enclosed The collection of ILicenses to compose this License implementation from.  May not be null.
      */
     public LicenseCollection(Collection<ILicense> enclosed) {
-        super(enclosed);
-        this.enclosed = enclosed;
-        this.matchingLicense = null;
-        this.lastState = State.i;
+        this(new MatchingEngine(enclosed));
     }
 
-    @Override
-    public String getId() {
-        return "Default License Collection";
+    /**
+     * Constructs the LicenseCollection for a document from a compiled engine.
+     * @param engine The engine that matches the licenses.
+     */
+    public LicenseCollection(MatchingEngine engine) {
+        super("Default License Collection");
+        this.evaluation = engine.newEvaluation();
     }
 
     @Override
     public void reset() {
-        enclosed.stream().forEach(ILicense::reset);
-        this.lastState = State.i;
-        this.matchingLicense = null;
+        evaluation.reset();
     }
 
     @Override
     public State matches(String line) {
-        State dflt = State.f;
-        for (ILicense license : enclosed) {
-            switch (license.matches(line)) {
-            case t:
-                this.matchingLicense = license;
-                lastState = State.t;
-                return State.t;
-            case i:
-                dflt = State.i;
-                break;
-            default:
-                // do nothing
-                break;
-            }
-        }
-        lastState = dflt;
-        return dflt;
+        return evaluation.matches(line);
     }
 
     @Override
     public State currentState() {
-        if (lastState == State.t) {
-            return lastState;
-        }
-        for (ILicense license : enclosed) {
-            switch (license.currentState()) {
-            case t:
-                this.matchingLicense = license;
-                lastState = State.t;
-                return lastState;
-            case i:
-                lastState = State.i;
-                return lastState;
-            case f:
-                // do nothing;
-                break;
-            }
-        }
-        lastState = State.f;
-        return lastState;
+        return evaluation.currentState();
+    }
+
+    @Override
+    public State finalizeState() {
+        return evaluation.finalizeState();
     }
 
     @Override
@@ -113,16 +85,19 @@ class LicenseCollection extends AbstractMatcherContainer implements ILicense {
 
     @Override
     public ILicenseFamily getLicenseFamily() {
+        ILicense matchingLicense = evaluation.getMatchingLicense();
         return matchingLicense == null ? DEFAULT : matchingLicense.getLicenseFamily();
     }
 
     @Override
     public String getNotes() {
+        ILicense matchingLicense = evaluation.getMatchingLicense();
         return matchingLicense == null ? null : matchingLicense.getNotes();
     }
 
     @Override
     public String derivedFrom() {
+        ILicense matchingLicense = evaluation.getMatchingLicense();
         return matchingLicense == null ? null : matchingLicense.derivedFrom();
     }
 }
@@ -0,0 +1,857 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.rat.analysis.IHeaderMatcher.State;
+import org.apache.rat.analysis.matchers.AbstractMatcherContainer;
+import org.apache.rat.analysis.matchers.AndMatcher;
+import org.apache.rat.analysis.matchers.CopyrightMatcher;
+import org.apache.rat.analysis.matchers.FullTextMatcher;
+import org.apache.rat.analysis.matchers.LineTests;
+import org.apache.rat.analysis.matchers.NotMatcher;
+import org.apache.rat.analysis.matchers.OrMatcher;
+import org.apache.rat.analysis.matchers.SPDXMatcherFactory;
+import org.apache.rat.analysis.matchers.SimpleRegexMatcher;
+import org.apache.rat.analysis.matchers.SimpleTextMatcher;
+import org.apache.rat.configuration.builders.MatcherRefBuilder;
+import org.apache.rat.license.ILicense;
+
+/**
+ * An immutable plan that matches lines against a collection of licenses as a single unit.
+ * <p>
+ * The matcher trees of the licenses are compiled into a parallel tree of nodes.  The nodes do not hold any state,
+ * the state of the document being matched is kept in an {@link Evaluation} so that one engine can match many
+ * documents concurrently.  The patterns of all the {@code SimpleTextMatcher}s in the licenses are placed in a single
+ * Aho-Corasick automaton so that each line is searched once no matter how many text matchers are defined.  In the same
+ * way the SPDX identifier is extracted from each line once and resolves all the SPDX matchers together, and each line
+ * is normalized once into a reusable buffer for all the full text matchers.  A matcher that appears in more than one
+ * license is compiled once and is evaluated at most once per line.
+ * <p>
+ * Matchers that are not known to the engine are called directly and keep the state of the document themselves.
+ * If there are any such matchers the engine is not thread safe, see {@link #isThreadSafe()}.
+ */
+class MatchingEngine {
+
+    /** The initial size of the buffer for normalized lines. */
+    private static final int INITIAL_LINE_LENGTH = 256;
+
+    /** The licenses in the order they were provided. */
+    private final List<ILicense> licenseList;
+    /** The compiled licenses in the order they were provided. */
+    private final List<LicenseNode> licenses;
+    /** The matchers that are called directly. */
+    private final List<IHeaderMatcher> uncompiled;
+    /** The automaton for all the simple text patterns. */
+    private final AhoCorasickAutomaton textPatterns;
+    /** The index of each SPDX identifier used by the licenses. */
+    private final Map<String, Integer> spdxIds;
+    /** Whether any license contains a full text matcher. */
+    private final boolean hasFullText;
+    /** The number of nodes in the plan. */
+    private final int nodeCount;
+
+    /**
+     * Compiles the licenses into a matching engine.
+     * @param licenses the licenses to match.
+     */
+    MatchingEngine(Collection<ILicense> licenses) {
+        Compiler compiler = new Compiler();
+        this.licenseList = Collections.unmodifiableList(new ArrayList<>(licenses));
+        List<LicenseNode> compiled = new ArrayList<>();
+        for (ILicense license : licenseList) {
+            IHeaderMatcher matcher = license.getMatcher();
+            compiled.add(new LicenseNode(compiler.nextSlot(), license,
+                    compiler.compile(matcher == null ? license : matcher)));
+        }
+        this.licenses = Collections.unmodifiableList(compiled);
+        this.uncompiled = Collections.unmodifiableList(compiler.uncompiled);
+        this.textPatterns = new AhoCorasickAutomaton(compiler.patterns);
+        this.spdxIds = compiler.spdxIds;
+        this.hasFullText = compiler.hasFullText;
+        this.nodeCount = compiler.slots;
+    }
+
+    /**
+     * @return the licenses matched by this engine.
+     */
+    List<ILicense> getLicenses() {
+        return licenseList;
+    }
+
+    /**
+     * Determines if evaluations of this engine may be used concurrently.  This is the case unless a license
+     * contains a matcher that the engine calls directly.
+     * @return {@code true} if the engine is thread safe.
+     */
+    boolean isThreadSafe() {
+        return uncompiled.isEmpty();
+    }
+
+    /**
+     * Creates a fingerprint of the licenses matched by this engine.  Engines compiled from licenses that are
+     * defined the same way have the same fingerprint.  Matchers that are not known to the engine, including
+     * subclasses of the known matchers, are identified by their class and id.
+     * @return the hex encoded SHA-256 digest of the licenses.
+     */
+    String fingerprint() {
+        StringBuilder description = new StringBuilder();
+        licenseList.forEach(license -> describe(license, description));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder();
+            for (byte b : digest) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the state for matching a document.
+     * @return a new evaluation of this engine.
+     */
+    Evaluation newEvaluation() {
+        return new Evaluation();
+    }
+
+    /**
+     * The state of a single document being matched.  An evaluation may be reused for multiple documents by
+     * calling {@link #reset()} between documents, it must not be used by more than one thread at a time.
+     */
+    class Evaluation {
+        /** The number of the current line. */
+        private int lineNumber;
+        /** The text patterns found in the current line. */
+        private final BitSet textHits = new BitSet(textPatterns.size());
+        /** The normalized form of the current line shared by all full text nodes. */
+        private char[] normalized = new char[INITIAL_LINE_LENGTH];
+        /** The number of characters in {@code normalized}. */
+        private int normalizedLength;
+        /** The index of the SPDX identifier on the current line, or -1 if there is none. */
+        private int spdxHit;
+        /** The line each node was last evaluated on. */
+        private final int[] lastLine = new int[nodeCount];
+        /** The state of each leaf and any node, and the state each license and not node resolved to at its limit. */
+        private final State[] states = new State[nodeCount];
+        /** The lines counted by each license and not node, or the length matched by each full text node. */
+        private final int[] lines = new int[nodeCount];
+        /** The characters counted by each license and not node. */
+        private final long[] chars = new long[nodeCount];
+        /** The limit flag of each license and not node. */
+        private final boolean[] flags = new boolean[nodeCount];
+        private ILicense matchingLicense;
+        private State lastState;
+
+        private Evaluation() {
+            reset();
+        }
+
+        /**
+         * @return the license that matched the document, or {@code null} if no license has matched.
+         */
+        ILicense getMatchingLicense() {
+            return matchingLicense;
+        }
+
+        /**
+         * Resets the evaluation for the next document.
+         */
+        void reset() {
+            uncompiled.forEach(IHeaderMatcher::reset);
+            lineNumber = 0;
+            spdxHit = -1;
+            Arrays.fill(lastLine, 0);
+            Arrays.fill(states, State.i);
+            Arrays.fill(lines, 0);
+            Arrays.fill(chars, 0);
+            Arrays.fill(flags, false);
+            matchingLicense = null;
+            lastState = State.i;
+        }
+
+        /**
+         * Matches the next line of the document against all licenses.
+         * @param line the line to match.
+         * @return {@code t} if a license matched, {@code f} if no license can match, {@code i} otherwise.
+         * @see IHeaderMatcher#matches(String)
+         */
+        State matches(String line) {
+            lineNumber++;
+            textHits.clear();
+            if (textPatterns.size() > 0) {
+                textPatterns.search(line, textHits);
+            }
+            if (hasFullText) {
+                if (normalized.length < line.length()) {
+                    normalized = new char[Math.max(line.length(), normalized.length * 2)];
+                }
+                normalizedLength = FullTextMatcher.normalize(line, normalized);
+            }
+            if (!spdxIds.isEmpty()) {
+                String spdxId = SPDXMatcherFactory.extractId(line);
+                Integer idx = spdxId == null ? null : spdxIds.get(spdxId);
+                spdxHit = idx == null ? -1 : idx;
+            }
+            State dflt = State.f;
+            for (LicenseNode license : licenses) {
+                switch (license.matches(this, line)) {
+                case t:
+                    matchingLicense = license.license;
+                    lastState = State.t;
+                    return State.t;
+                case i:
+                    dflt = State.i;
+                    break;
+                default:
+                    // do nothing
+                    break;
+                }
+            }
+            lastState = dflt;
+            return dflt;
+        }
+
+        /**
+         * @return the current state of the match across all licenses.
+         * @see IHeaderMatcher#currentState()
+         */
+        State currentState() {
+            if (lastState == State.t) {
+                return lastState;
+            }
+            for (LicenseNode license : licenses) {
+                switch (license.currentState(this)) {
+                case t:
+                    matchingLicense = license.license;
+                    lastState = State.t;
+                    return lastState;
+                case i:
+                    lastState = State.i;
+                    return lastState;
+                case f:
+                    // do nothing;
+                    break;
+                }
+            }
+            lastState = State.f;
+            return lastState;
+        }
+
+        /**
+         * Finalizes all licenses at the end of the document.
+         * @return the final state of the match across all licenses.
+         * @see IHeaderMatcher#finalizeState()
+         */
+        State finalizeState() {
+            licenses.forEach(l -> l.finalizeState(this));
+            return currentState();
+        }
+    }
+
+    /**
+     * Builds the node tree for the matchers.
+     */
+    private class Compiler {
+        private final Map<IHeaderMatcher, Node> nodes = new IdentityHashMap<>();
+        private final Map<String, Integer> patternIndex = new HashMap<>();
+        private final List<String> patterns = new ArrayList<>();
+        private final Map<String, Integer> spdxIds = new HashMap<>();
+        private final List<IHeaderMatcher> uncompiled = new ArrayList<>();
+        private boolean hasFullText;
+        private int slots;
+
+        private int nextSlot() {
+            return slots++;
+        }
+
+        private Node compile(IHeaderMatcher matcher) {
+            IHeaderMatcher resolved = MatcherRefBuilder.resolve(matcher);
+            Node node = nodes.get(resolved);
+            if (node == null) {
+                node = create(resolved);
+                nodes.put(resolved, node);
+            }
+            return node;
+        }
+
+        private List<Node> compile(Collection<IHeaderMatcher> matchers) {
+            List<Node> result = new ArrayList<>();
+            matchers.forEach(m -> result.add(compile(m)));
+            return result;
+        }
+
+        /**
+         * Creates the node for a matcher.  Only matchers of exactly the known classes are compiled, a subclass may
+         * change the matching and is called directly.
+         * @param matcher the matcher.
+         * @return the node.
+         */
+        private Node create(IHeaderMatcher matcher) {
+            if (matcher.getClass() == SimpleTextMatcher.class) {
+                String pattern = ((SimpleTextMatcher) matcher).getPattern();
+                Integer idx = patternIndex.get(pattern);
+                if (idx == null) {
+                    idx = patterns.size();
+                    patterns.add(pattern);
+                    patternIndex.put(pattern, idx);
+                }
+                return new TextNode(nextSlot(), idx);
+            }
+            if (matcher.getClass() == FullTextMatcher.class) {
+                hasFullText = true;
+                return new FullTextNode(nextSlot(), (FullTextMatcher) matcher);
+            }
+            if (matcher.getClass() == SimpleRegexMatcher.class) {
+                return new PredicateNode(nextSlot(), ((SimpleRegexMatcher) matcher)::doMatch);
+            }
+            if (matcher.getClass() == CopyrightMatcher.class) {
+                return new PredicateNode(nextSlot(), LineTests.of((CopyrightMatcher) matcher));
+            }
+            if (matcher.getClass() == SPDXMatcherFactory.Match.class) {
+                String spdxId = ((SPDXMatcherFactory.Match) matcher).getSpdxId();
+                Integer idx = spdxIds.get(spdxId);
+                if (idx == null) {
+                    idx = spdxIds.size();
+                    spdxIds.put(spdxId, idx);
+                }
+                return new SpdxNode(nextSlot(), idx);
+            }
+            if (matcher.getClass() == OrMatcher.class) {
+                return new AnyNode(nextSlot(), compile(((OrMatcher) matcher).getEnclosed()));
+            }
+            if (matcher.getClass() == AndMatcher.class) {
+                return new AllNode(nextSlot(), compile(((AndMatcher) matcher).getEnclosed()));
+            }
+            if (matcher.getClass() == NotMatcher.class) {
+                NotMatcher not = (NotMatcher) matcher;
+                return new NotNode(nextSlot(), compile(not.getEnclosed()), not.getLineHorizon(),
+                        not.getCharHorizon());
+            }
+            uncompiled.add(matcher);
+            return new MatcherNode(nextSlot(), matcher);
+        }
+
+    }
+
+    /**
+     * Writes a canonical description of a license to the buffer.
+     * @param license the license to describe.
+     * @param buffer the buffer to write to.
+     */
+    private static void describe(ILicense license, StringBuilder buffer) {
+        buffer.append("license(").append(license.getLicenseFamily().getFamilyCategory()).append('|')
+                .append(license.getLicenseFamily().getFamilyName()).append('|').append(license.getNotes())
+                .append('|').append(license.derivedFrom()).append('|').append(license.getScanLineLimit())
+                .append('|').append(license.getScanCharLimit()).append('|');
+        IHeaderMatcher matcher = license.getMatcher();
+        describe(matcher == null ? license : matcher, buffer);
+        buffer.append(")\n");
+    }
+
+    /**
+     * Writes a canonical description of a matcher to the buffer.
+     * @param matcher the matcher to describe.
+     * @param buffer the buffer to write to.
+     */
+    private static void describe(IHeaderMatcher matcher, StringBuilder buffer) {
+        IHeaderMatcher resolved = MatcherRefBuilder.resolve(matcher);
+        if (resolved.getClass() == SimpleTextMatcher.class) {
+            buffer.append("text(").append(((SimpleTextMatcher) resolved).getPattern());
+        } else if (resolved.getClass() == FullTextMatcher.class) {
+            buffer.append("fullText(").append(((FullTextMatcher) resolved).getFullText());
+        } else if (resolved.getClass() == SimpleRegexMatcher.class) {
+            Pattern pattern = ((SimpleRegexMatcher) resolved).getPattern();
+            buffer.append("regex(").append(pattern.pattern()).append('|').append(pattern.flags());
+        } else if (resolved.getClass() == CopyrightMatcher.class) {
+            CopyrightMatcher copyright = (CopyrightMatcher) resolved;
+            buffer.append("copyright(").append(copyright.getDateOwnerPattern()).append('|')
+                    .append(copyright.getOwnerDatePattern());
+        } else if (resolved.getClass() == SPDXMatcherFactory.Match.class) {
+            buffer.append("spdx(").append(((SPDXMatcherFactory.Match) resolved).getSpdxId());
+        } else if (resolved.getClass() == OrMatcher.class || resolved.getClass() == AndMatcher.class) {
+            buffer.append(resolved.getClass() == OrMatcher.class ? "any(" : "all(");
+            for (IHeaderMatcher enclosed : ((AbstractMatcherContainer) resolved).getEnclosed()) {
+                describe(enclosed, buffer);
+            }
+        } else if (resolved.getClass() == NotMatcher.class) {
+            NotMatcher not = (NotMatcher) resolved;
+            buffer.append("not(").append(not.getLineHorizon()).append('|').append(not.getCharHorizon())
+                    .append('|');
+            describe(not.getEnclosed(), buffer);
+        } else {
+            buffer.append("matcher(").append(resolved.getClass().getName()).append('|').append(resolved.getId());
+        }
+        buffer.append(')');
+    }
+
+    /**
+     * A compiled matcher.  The state of the node is kept in the evaluation at the slot of the node.  Each node
+     * processes a line at most once no matter how many parents it has.
+     */
+    private abstract static class Node {
+        protected final int slot;
+
+        Node(int slot) {
+            this.slot = slot;
+        }
+
+        /**
+         * Processes the line if it has not already been processed.
+         * @param evaluation the evaluation being performed.
+         * @param line the line to process.
+         * @return the state after the line was processed.
+         */
+        final State matches(Evaluation evaluation, String line) {
+            if (evaluation.lastLine[slot] != evaluation.lineNumber) {
+                evaluation.lastLine[slot] = evaluation.lineNumber;
+                return doMatch(evaluation, line);
+            }
+            return currentState(evaluation);
+        }
+
+        abstract State doMatch(Evaluation evaluation, String line);
+
+        abstract State currentState(Evaluation evaluation);
+
+        abstract State finalizeState(Evaluation evaluation);
+
+        /**
+         * Computes the state the node would finalize to if the document ended now without finalizing it, so that
+         * the nodes it shares with other parents are still matched for those parents.
+         * @param evaluation the evaluation being performed.
+         * @return the resolved state, {@code t} or {@code f} unless an uncompiled matcher is still indeterminate.
+         */
+        abstract State resolve(Evaluation evaluation);
+    }
+
+    /**
+     * The equivalent of an {@code AbstractSimpleMatcher}.
+     */
+    private abstract static class SimpleNode extends Node {
+
+        SimpleNode(int slot) {
+            super(slot);
+        }
+
+        /**
+         * Performs the actual match test.
+         * @param evaluation the evaluation being performed.
+         * @param line the line to check.
+         * @return {@code true} if the line matches, {@code false} otherwise.
+         */
+        abstract boolean test(Evaluation evaluation, String line);
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            if (evaluation.states[slot] != State.t && test(evaluation, line)) {
+                evaluation.states[slot] = State.t;
+            }
+            return evaluation.states[slot];
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            return evaluation.states[slot];
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            if (evaluation.states[slot] == State.i) {
+                evaluation.states[slot] = State.f;
+            }
+            return evaluation.states[slot];
+        }
+
+        @Override
+        State resolve(Evaluation evaluation) {
+            return evaluation.states[slot] == State.i ? State.f : evaluation.states[slot];
+        }
+    }
+
+    /**
+     * A {@code SimpleTextMatcher} resolved from the automaton results for the line.
+     */
+    private static class TextNode extends SimpleNode {
+        private final int pattern;
+
+        TextNode(int slot, int pattern) {
+            super(slot);
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean test(Evaluation evaluation, String line) {
+            return evaluation.textHits.get(pattern);
+        }
+    }
+
+    /**
+     * A matcher that only depends on the current line.
+     */
+    private static class PredicateNode extends SimpleNode {
+        private final Predicate<String> predicate;
+
+        PredicateNode(int slot, Predicate<String> predicate) {
+            super(slot);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean test(Evaluation evaluation, String line) {
+            return predicate.test(line);
+        }
+    }
+
+    /**
+     * An SPDX matcher resolved from the identifier found on the line.
+     */
+    private static class SpdxNode extends SimpleNode {
+        private final int spdxId;
+
+        SpdxNode(int slot, int spdxId) {
+            super(slot);
+            this.spdxId = spdxId;
+        }
+
+        @Override
+        boolean test(Evaluation evaluation, String line) {
+            return evaluation.spdxHit == spdxId;
+        }
+    }
+
+    /**
+     * The equivalent of a {@code FullTextMatcher}.  The evaluation holds the length of the full text matched and
+     * the normalized line.
+     */
+    private static class FullTextNode extends SimpleNode {
+        private final FullTextMatcher fullText;
+
+        FullTextNode(int slot, FullTextMatcher fullText) {
+            super(slot);
+            this.fullText = fullText;
+        }
+
+        @Override
+        boolean test(Evaluation evaluation, String line) {
+            evaluation.lines[slot] = fullText.advance(evaluation.lines[slot], evaluation.normalized,
+                    evaluation.normalizedLength);
+            return evaluation.lines[slot] == fullText.length();
+        }
+    }
+
+    /**
+     * The equivalent of an {@code OrMatcher}.
+     */
+    private static class AnyNode extends Node {
+        private final List<Node> enclosed;
+
+        AnyNode(int slot, List<Node> enclosed) {
+            super(slot);
+            this.enclosed = enclosed;
+        }
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            if (evaluation.states[slot] == State.t) {
+                return State.t;
+            }
+            for (Node node : enclosed) {
+                if (node.matches(evaluation, line) == State.t) {
+                    evaluation.states[slot] = State.t;
+                    return State.t;
+                }
+                evaluation.states[slot] = State.i;
+            }
+            return evaluation.states[slot];
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            if (evaluation.states[slot] == State.t) {
+                return State.t;
+            }
+            State result = State.f;
+            for (Node node : enclosed) {
+                State state = node.currentState(evaluation);
+                if (state != State.f) {
+                    result = state;
+                    break;
+                }
+            }
+            evaluation.states[slot] = result;
+            return result;
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            enclosed.forEach(n -> n.finalizeState(evaluation));
+            return currentState(evaluation);
+        }
+
+        @Override
+        State resolve(Evaluation evaluation) {
+            if (evaluation.states[slot] == State.t) {
+                return State.t;
+            }
+            State result = State.f;
+            for (Node node : enclosed) {
+                State state = node.resolve(evaluation);
+                if (state != State.f) {
+                    result = state;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The equivalent of an {@code AndMatcher}.
+     */
+    private static class AllNode extends Node {
+        private final List<Node> enclosed;
+
+        AllNode(int slot, List<Node> enclosed) {
+            super(slot);
+            this.enclosed = enclosed;
+        }
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            for (Node node : enclosed) {
+                if (node.currentState(evaluation) == State.i) {
+                    node.matches(evaluation, line);
+                }
+            }
+            return currentState(evaluation);
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            State dflt = State.t;
+            for (Node node : enclosed) {
+                switch (node.currentState(evaluation)) {
+                case f:
+                    return State.f;
+                case i:
+                    dflt = State.i;
+                    break;
+                default:
+                    // do nothing
+                    break;
+                }
+            }
+            return dflt;
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            enclosed.forEach(n -> n.finalizeState(evaluation));
+            return currentState(evaluation);
+        }
+
+        @Override
+        State resolve(Evaluation evaluation) {
+            State dflt = State.t;
+            for (Node node : enclosed) {
+                switch (node.resolve(evaluation)) {
+                case f:
+                    return State.f;
+                case i:
+                    dflt = State.i;
+                    break;
+                default:
+                    // do nothing
+                    break;
+                }
+            }
+            return dflt;
+        }
+    }
+
+    /**
+     * The equivalent of a {@code NotMatcher}.  Once the horizon has passed the node keeps the state it resolved to at
+     * that point, whatever the parents that share the enclosed node match afterwards.
+     */
+    private static class NotNode extends Node {
+        private final Node enclosed;
+        private final int lineHorizon;
+        private final long charHorizon;
+
+        NotNode(int slot, Node enclosed, int lineHorizon, long charHorizon) {
+            super(slot);
+            this.enclosed = enclosed;
+            this.lineHorizon = lineHorizon;
+            this.charHorizon = charHorizon;
+        }
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            if (evaluation.flags[slot]) {
+                return evaluation.states[slot];
+            }
+            enclosed.matches(evaluation, line);
+            if ((lineHorizon > 0 || charHorizon > 0) && enclosed.currentState(evaluation) == State.i) {
+                evaluation.lines[slot]++;
+                evaluation.chars[slot] += line.length() + 1;
+                if ((lineHorizon > 0 && evaluation.lines[slot] >= lineHorizon)
+                        || (charHorizon > 0 && evaluation.chars[slot] >= charHorizon)) {
+                    evaluation.flags[slot] = true;
+                    evaluation.states[slot] = negate(enclosed.resolve(evaluation));
+                    return evaluation.states[slot];
+                }
+            }
+            return currentState(evaluation);
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            return evaluation.flags[slot] ? evaluation.states[slot] : negate(enclosed.currentState(evaluation));
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            if (evaluation.flags[slot]) {
+                return evaluation.states[slot];
+            }
+            return negate(enclosed.finalizeState(evaluation));
+        }
+
+        @Override
+        State resolve(Evaluation evaluation) {
+            return evaluation.flags[slot] ? evaluation.states[slot] : negate(enclosed.resolve(evaluation));
+        }
+
+        private static State negate(State state) {
+            switch (state) {
+            case t:
+                return State.f;
+            case f:
+                return State.t;
+            default:
+            case i:
+                return State.i;
+            }
+        }
+    }
+
+    /**
+     * A matcher that is not compiled by the engine.  The matcher keeps its own state.
+     */
+    private static class MatcherNode extends Node {
+        private final IHeaderMatcher matcher;
+
+        MatcherNode(int slot, IHeaderMatcher matcher) {
+            super(slot);
+            this.matcher = matcher;
+        }
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            return matcher.matches(line);
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            return matcher.currentState();
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            return matcher.finalizeState();
+        }
+
+        /**
+         * An uncompiled matcher is only finalized, it keeps its own state.
+         */
+        @Override
+        State resolve(Evaluation evaluation) {
+            return matcher.finalizeState();
+        }
+    }
+
+    /**
+     * A license and its scan limits.  Once a limit is reached the license keeps the state its matcher resolved to at
+     * that point, whatever the licenses that share its matchers match afterwards.
+     */
+    private static class LicenseNode extends Node {
+        private final ILicense license;
+        private final Node matcher;
+
+        LicenseNode(int slot, ILicense license, Node matcher) {
+            super(slot);
+            this.license = license;
+            this.matcher = matcher;
+        }
+
+        @Override
+        State doMatch(Evaluation evaluation, String line) {
+            if (evaluation.flags[slot]) {
+                return evaluation.states[slot];
+            }
+            State result = matcher.matches(evaluation, line);
+            if (result == State.i && (license.getScanLineLimit() > 0 || license.getScanCharLimit() > 0)) {
+                evaluation.lines[slot]++;
+                evaluation.chars[slot] += line.length() + 1;
+                if ((license.getScanLineLimit() > 0 && evaluation.lines[slot] >= license.getScanLineLimit())
+                        || (license.getScanCharLimit() > 0
+                                && evaluation.chars[slot] >= license.getScanCharLimit())) {
+                    evaluation.flags[slot] = true;
+                    evaluation.states[slot] = matcher.resolve(evaluation);
+                    result = evaluation.states[slot];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        State currentState(Evaluation evaluation) {
+            return evaluation.flags[slot] ? evaluation.states[slot] : matcher.currentState(evaluation);
+        }
+
+        @Override
+        State finalizeState(Evaluation evaluation) {
+            return evaluation.flags[slot] ? evaluation.states[slot] : matcher.finalizeState(evaluation);
+        }
+
+        @Override
+        State resolve(Evaluation evaluation) {
+            return evaluation.flags[slot] ? evaluation.states[slot] : matcher.resolve(evaluation);
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.rat.analysis.matchers;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Objects;
 
 import org.apache.rat.analysis.IHeaderMatcher;
@@ -55,6 +56,14 @@ public abstract class AbstractMatcherContainer extends AbstractHeaderMatcher {
         this(null, enclosed);
     }
 
+    /**
+     * Gets the enclosed matchers in the order they were provided.
+     * @return an unmodifiable view of the enclosed matchers.
+     */
+    public Collection<IHeaderMatcher> getEnclosed() {
+        return Collections.unmodifiableCollection(enclosed);
+    }
+
     @Override
     public void reset() {
         enclosed.stream().forEach(x -> x.reset());
@@ -104,6 +104,20 @@ public class CopyrightMatcher extends AbstractSimpleMatcher {
         }
     }
 
+    /**
+     * @return the pattern for the date followed by the owner.
+     */
+    public Pattern getDateOwnerPattern() {
+        return dateOwnerPattern;
+    }
+
+    /**
+     * @return the pattern for the owner followed by the date, may be null.
+     */
+    public Pattern getOwnerDatePattern() {
+        return ownerDatePattern;
+    }
+
     @Override
     protected boolean doMatch(String line) {
         Matcher matcher = COPYRIGHT_PATTERN.matcher(line);
@@ -18,31 +18,32 @@
  */
 package org.apache.rat.analysis.matchers;
 
-import java.util.Locale;
 import java.util.Objects;
 
 /**
- * Accumulates all letters and numbers contained inside the header and compares
- * it to the full text of a given license (after reducing it to letters and
- * numbers as well).
+ * Matches all letters and numbers contained inside the header against the full text
+ * of a given license (after reducing it to letters and numbers as well).
  *
  * <p>
  * The text comparison is case insensitive but assumes only characters in the
  * US-ASCII charset are being matched.
  * </p>
+ * <p>
+ * The letters and numbers of each line are fed one at a time into a Knuth-Morris-Pratt
+ * search for the full text, so no copies of the lines are made and the only state
+ * is the length of the full text matched so far.
+ * </p>
  */
 public class FullTextMatcher extends AbstractSimpleMatcher {
 
-    // Number of match characters assumed to be present on first line
-    private static final int DEFAULT_INITIAL_LINE_LENGTH = 20;
-
-    private String fullText;
+    /** The letters and numbers of the full text in lower case. */
+    private final char[] fullText;
 
-    private String firstLine;
+    /** The Knuth-Morris-Pratt failure function for {@code fullText}. */
+    private final int[] failure;
 
-    private boolean seenFirstLine = false;
-
-    private final StringBuilder buffer = new StringBuilder();
+    /** The length of the full text matched so far. */
+    private int matched;
 
     /**
      * Constructs the full text matcher with a unique random id and the specified text to match.
@@ -60,14 +61,21 @@ public class FullTextMatcher extends AbstractSimpleMatcher {
     public FullTextMatcher(String id, String fullText) {
         super(id);
         Objects.requireNonNull(fullText, "fullText may not be null");
-        int offset = fullText.indexOf('\n');
-        if (offset == -1) {
-            offset = Math.min(DEFAULT_INITIAL_LINE_LENGTH, fullText.length());
+        this.fullText = prune(fullText).toCharArray();
+        for (int i = 0; i < this.fullText.length; i++) {
+            this.fullText[i] = Character.toLowerCase(this.fullText[i]);
+        }
+        this.failure = new int[this.fullText.length];
+        int prefix = 0;
+        for (int i = 1; i < this.fullText.length; i++) {
+            while (prefix > 0 && this.fullText[i] != this.fullText[prefix]) {
+                prefix = failure[prefix - 1];
+            }
+            if (this.fullText[i] == this.fullText[prefix]) {
+                prefix++;
+            }
+            failure[i] = prefix;
         }
-        firstLine = prune(fullText.substring(0, offset)).toLowerCase(Locale.ENGLISH);
-        this.fullText = prune(fullText).toLowerCase(Locale.ENGLISH);
-        buffer.setLength(0);
-        seenFirstLine = false;
     }
 
     /**
@@ -88,45 +96,101 @@ public class FullTextMatcher extends AbstractSimpleMatcher {
         return buffer.toString();
     }
 
-    @Override
-    public boolean doMatch(String line) {
-        final String inputToMatch = prune(line).toLowerCase(Locale.ENGLISH);
-        if (seenFirstLine) { // Accumulate more input
-            buffer.append(inputToMatch);
-        } else {
-            int offset = inputToMatch.indexOf(firstLine);
-            if (offset >= 0) {
-                // we have a match, save the text starting with the match
-                buffer.append(inputToMatch.substring(offset));
-                seenFirstLine = true;
-                // Drop out to check whether full text is matched
-            } else {
-                // we assume that the first line must appear in a single line
-                return false; // no more to do here
+    /**
+     * @return the letters and numbers of the full text in lower case.
+     */
+    public String getFullText() {
+        return new String(fullText);
+    }
+
+    /**
+     * @return the number of letters and numbers in the full text.
+     */
+    public int length() {
+        return fullText.length;
+    }
+
+    /**
+     * Continues the search for the full text with the letters and numbers of a line.
+     * This method does not use or change the state of this matcher.
+     * @param matched the length of the full text matched before the line.
+     * @param line the line to search.
+     * @return the length of the full text matched after the line.  Equal to {@link #length()} once the full
+     * text has been found.
+     */
+    public int advance(int matched, CharSequence line) {
+        int result = matched;
+        final int length = line.length();
+        for (int i = 0; i < length && result < fullText.length; i++) {
+            char at = line.charAt(i);
+            if (Character.isLetterOrDigit(at)) {
+                result = step(result, Character.toLowerCase(at));
             }
         }
+        return result;
+    }
 
-        if (buffer.length() >= fullText.length()) { // we have enough data to match
-            if (buffer.toString().contains(fullText)) {
-                return true;
-            }
-            // buffer contains first line but does not contain full text
-            // It's possible that the buffer contains the first line again
-            int offset = buffer.substring(1).indexOf(firstLine);
-            if (offset >= 0) { // first line found again
-                buffer.delete(0, offset); // reset buffer to the new start
-            } else { // buffer does not even contain first line, so cannot be used to match full text
-                reset();
+    /**
+     * Continues the search for the full text with a line that has already been normalized.
+     * This method does not use or change the state of this matcher.
+     * @param matched the length of the full text matched before the line.
+     * @param normalized the letters and numbers of the line in lower case.
+     * @param length the number of characters of {@code normalized} to use.
+     * @return the length of the full text matched after the line.  Equal to {@link #length()} once the full
+     * text has been found.
+     * @see #normalize(CharSequence, char[])
+     */
+    public int advance(int matched, char[] normalized, int length) {
+        int result = matched;
+        for (int i = 0; i < length && result < fullText.length; i++) {
+            result = step(result, normalized[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes a line the way full text matchers see it: only letters and numbers are
+     * retained and they are converted to lower case.
+     * @param line the line to normalize.
+     * @param buffer the buffer to write the normalized characters to.  Must be at least as long as the line.
+     * @return the number of characters written to the buffer.
+     */
+    public static int normalize(CharSequence line, char[] buffer) {
+        int result = 0;
+        final int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char at = line.charAt(i);
+            if (Character.isLetterOrDigit(at)) {
+                buffer[result++] = Character.toLowerCase(at);
             }
         }
-        return false;
+        return result;
+    }
+
+    /**
+     * Advances the search by a single lower case letter or number.
+     * @param matched the length of the full text matched so far.
+     * @param at the next character.
+     * @return the length of the full text matched including {@code at}.
+     */
+    private int step(int matched, char at) {
+        int result = matched;
+        while (result > 0 && fullText[result] != at) {
+            result = failure[result - 1];
+        }
+        return fullText[result] == at ? result + 1 : result;
+    }
+
+    @Override
+    public boolean doMatch(String line) {
+        matched = advance(matched, line);
+        return matched == fullText.length;
     }
 
     @Override
     public void reset() {
         super.reset();
-        buffer.setLength(0);
-        seenFirstLine = false;
+        matched = 0;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis.matchers;
+
+import java.util.function.Predicate;
+
+/**
+ * Gives the matching engine access to the line test of the simple matchers that it compiles.  The line tests are
+ * protected so that they stay out of the API of the matchers, this class is not intended for use outside of RAT.
+ */
+public final class LineTests {
+
+    private LineTests() {
+    }
+
+    /**
+     * Gets the line test of a copyright matcher.  The test does not change the state of the matcher.
+     * @param matcher the matcher.
+     * @return the line test of the matcher.
+     */
+    public static Predicate<String> of(CopyrightMatcher matcher) {
+        return matcher::doMatch;
+    }
+}
@@ -20,13 +20,26 @@ package org.apache.rat.analysis.matchers;
 
 import java.util.Objects;
 
+import org.apache.rat.ConfigurationException;
 import org.apache.rat.analysis.IHeaderMatcher;
 /**
  * An IHeaderMatcher that reverses the result of an enclosed matcher.
+ * <p>
+ * Without a horizon the result can only become {@code State.t} once the enclosed matcher is finalized at the
+ * end of the document. When a horizon is set the enclosed matcher is finalized as soon as the number of lines
+ * or characters in the horizon has been seen, so that the result is known before the end of the document.
+ * </p>
  */
 public class NotMatcher extends AbstractHeaderMatcher {
 
     private final IHeaderMatcher enclosed;
+    private final int lineHorizon;
+    private final long charHorizon;
+    private int linesSeen;
+    private long charsSeen;
+    private boolean horizonPassed;
+    /** The state when the horizon was passed, kept whatever the enclosed matcher matches afterwards. */
+    private State horizonState;
 
     /**
      * Create the matcher with the enclosed matcher.
@@ -42,30 +55,88 @@ public class NotMatcher extends AbstractHeaderMatcher {
      * @param enclosed the enclosed matcher
      */
     public NotMatcher(String id, IHeaderMatcher enclosed) {
+        this(id, enclosed, 0, 0);
+    }
+
+    /**
+     * Create the matcher with the enclosed matcher, id and horizon.
+     * @param id the id for this matcher.
+     * @param enclosed the enclosed matcher
+     * @param lineHorizon the number of lines after which the enclosed matcher is finalized, 0 for no horizon.
+     * @param charHorizon the number of characters after which the enclosed matcher is finalized, 0 for no horizon.
+     */
+    public NotMatcher(String id, IHeaderMatcher enclosed, int lineHorizon, long charHorizon) {
         super(id);
         Objects.requireNonNull(enclosed, "enclosed matcher may not be null");
+        if (lineHorizon < 0 || charHorizon < 0) {
+            throw new ConfigurationException("'not' horizon may not be less than zero");
+        }
         this.enclosed = enclosed;
+        this.lineHorizon = lineHorizon;
+        this.charHorizon = charHorizon;
+    }
+
+    /**
+     * Gets the matcher whose result is negated.
+     * @return the enclosed matcher.
+     */
+    public IHeaderMatcher getEnclosed() {
+        return enclosed;
+    }
+
+    /**
+     * @return the number of lines after which the enclosed matcher is finalized, 0 for no horizon.
+     */
+    public int getLineHorizon() {
+        return lineHorizon;
+    }
+
+    /**
+     * @return the number of characters after which the enclosed matcher is finalized, 0 for no horizon.
+     */
+    public long getCharHorizon() {
+        return charHorizon;
     }
 
     @Override
     public State matches(String line) {
-        enclosed.matches(line);
+        if (!horizonPassed) {
+            enclosed.matches(line);
+            if ((lineHorizon > 0 || charHorizon > 0) && enclosed.currentState() == State.i) {
+                linesSeen++;
+                charsSeen += line.length() + 1;
+                if ((lineHorizon > 0 && linesSeen >= lineHorizon) || (charHorizon > 0 && charsSeen >= charHorizon)) {
+                    enclosed.finalizeState();
+                    horizonState = currentState();
+                    horizonPassed = true;
+                }
+            }
+        }
         return currentState();
     }
 
     @Override
     public void reset() {
         enclosed.reset();
+        linesSeen = 0;
+        charsSeen = 0;
+        horizonPassed = false;
     }
 
     @Override
     public State finalizeState() {
+        if (horizonPassed) {
+            return horizonState;
+        }
         enclosed.finalizeState();
         return currentState();
     }
 
     @Override
     public State currentState() {
+        if (horizonPassed) {
+            return horizonState;
+        }
         switch (enclosed.currentState()) {
         case t:
             return State.f;
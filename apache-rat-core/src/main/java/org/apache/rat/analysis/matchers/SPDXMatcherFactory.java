@@ -18,11 +18,7 @@
  */
 package org.apache.rat.analysis.matchers;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.rat.ConfigurationException;
@@ -42,31 +38,16 @@ import org.apache.rat.analysis.IHeaderMatcher;
 public class SPDXMatcherFactory {
 
     /**
-     * The collectoin of all matchers produced by this factory.
-     */
-    private static final Map<String, SPDXMatcherFactory.Match> matchers = new HashMap<>();
-
-    /**
-     * The instance of this factory.
+     * The instance of this factory.  The factory holds no state.
      */
     public static final SPDXMatcherFactory INSTANCE = new SPDXMatcherFactory();
 
     /**
-     * The regular expression to locate the SPDX license identifer in the text stream
-     */
-    private static Pattern groupSelector = Pattern.compile(".*SPDX-License-Identifier:\\s([A-Za-z0-9\\.\\-]+)");
-
-    /**
-     * the last line that this factory scanned.
-     */
-    private String lastLine;
-    /**
-     * The last matcer to match the line.
+     * The tag that precedes the SPDX license identifier in the text stream.
      */
-    private Match lastMatch;
+    private static final String IDENTIFIER_TAG = "SPDX-License-Identifier:";
 
     private SPDXMatcherFactory() {
-        lastLine = null;
     };
 
     /**
@@ -78,47 +59,54 @@ public class SPDXMatcherFactory {
         if (StringUtils.isBlank(spdxId)) {
             throw new ConfigurationException("'spdx' type matcher requires a name");
         }
-        Match matcher = matchers.get(spdxId);
-        if (matcher == null) {
-            matcher = new Match(spdxId);
-            matchers.put(spdxId, matcher);
-        }
-        return matcher;
+        return new Match(spdxId);
     }
 
     /**
-     * Each matcher calls this method to present the line it is working on.
-     * @param line The line the caller is looking at.
-     * @param caller the Match that is calling this method.
-     * @return true if the caller matches the text.
+     * Extracts the SPDX license identifier from a line.  If the tag appears more than once the last identifier
+     * on the line is returned.
+     * @param line the line to extract the identifier from.
+     * @return the identifier or {@code null} if the line does not contain one.
      */
-    private boolean check(String line, Match caller) {
-        // if the line is has not been seen yet see if we can extract the SPDX id from the line.
-        // if so then see if that name has been registered.  If so then we have a match and set 
-        // lastMatch.
-        if (lastLine == null || !lastLine.equals(line)) {
-            Matcher matcher = groupSelector.matcher(line);
-            if (matcher.find()) {
-                lastMatch = matchers.get(matcher.group(1));
-            } else {
-                lastMatch = null;
+    public static String extractId(String line) {
+        int tag = line.lastIndexOf(IDENTIFIER_TAG);
+        while (tag >= 0) {
+            // the tag is followed by a single white space and the short-name.
+            int start = tag + IDENTIFIER_TAG.length() + 1;
+            if (start < line.length() && isSpace(line.charAt(start - 1))) {
+                int end = start;
+                while (end < line.length() && isIdChar(line.charAt(end))) {
+                    end++;
+                }
+                if (end > start) {
+                    return line.substring(start, end);
+                }
             }
+            tag = line.lastIndexOf(IDENTIFIER_TAG, tag - 1);
         }
-        // see if the caller matches lastMatch.
-        return (lastMatch != null) && caller.spdxId.equals(lastMatch.spdxId);
+        return null;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isIdChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-';
     }
 
+    /**
+     * A matcher for a single SPDX identifier.  When used outside of the analysis engine each matcher extracts the
+     * identifier from the line itself.
+     */
     public class Match extends AbstractSimpleMatcher {
 
-        String spdxId;
+        private final String spdxId;
+
         /**
          * Constructor.
          * 
-         * @param spdxId A regular expression that matches the @{short-name} of the SPDX
-         * Identifier.
-         * @param licenseFamilyCategory the RAT license family category for the license.
-         * @param licenseFamilyName the RAT license family name for the license.
-         * @param notes The notes for this matcher.
+         * @param spdxId the {@code short-name} of the SPDX Identifier.
          */
         Match(final String spdxId) {
             super("SPDX:" + spdxId);
@@ -126,9 +114,16 @@ public class SPDXMatcherFactory {
             this.spdxId = spdxId;
         }
 
+        /**
+         * @return the SPDX identifier this matcher matches.
+         */
+        public String getSpdxId() {
+            return spdxId;
+        }
+
         @Override
         protected boolean doMatch(String line) {
-            return SPDXMatcherFactory.this.check(line, this);
+            return spdxId.equals(extractId(line));
         }
 
         @Override
@@ -44,6 +44,13 @@ public class SimpleRegexMatcher extends AbstractSimpleMatcher {
         this.pattern = pattern;
     }
 
+    /**
+     * @return the pattern to match.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
     @Override
     public boolean doMatch(String line) {
         return pattern.matcher(line).find();
@@ -47,6 +47,14 @@ public class SimpleTextMatcher extends AbstractSimpleMatcher {
         this.pattern = pattern;
     }
 
+    /**
+     * Gets the text this matcher searches for.
+     * @return the pattern to match.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
     @Override
     public boolean doMatch(String line) {
         return line.contains(pattern);
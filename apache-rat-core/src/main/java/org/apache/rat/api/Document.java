@@ -18,9 +18,11 @@
  */ 
 package org.apache.rat.api;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import org.apache.rat.document.CompositeDocumentException;
 
@@ -55,4 +57,21 @@ public interface Document {
      * @return true if composite, false otherwise
      */
     boolean isComposite();
+
+    /**
+     * Gets the file that holds the content of this document.
+     * @return the file or null if the content is not held in a file of its own.
+     */
+    default File getFile() {
+        return null;
+    }
+
+    /**
+     * Gets the attributes of the file that holds the content of this document, as they were read when the
+     * document was found.  This gives later stages the size and modification time without another file system call.
+     * @return the attributes or null if they are not known.
+     */
+    default BasicFileAttributes getFileAttributes() {
+        return null;
+    }
 }
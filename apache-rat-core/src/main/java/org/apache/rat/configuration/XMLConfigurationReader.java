@@ -58,7 +58,7 @@ import org.xml.sax.SAXException;
  * <p>
  * {@code <rat-config>}<br/>
  * {@code   <licenses>}<br/>
- * {@code     <license id=id name=name >}<br/>
+ * {@code     <license id=id name=name scan_line_limit='' scan_char_limit=''>}<br/>
  * {@code       <notes></notes>}<br/>
  * {@code       <text>  </text>}<br/>
  * {@code       <copyright start='' end='' owner=''/>}<br/>
@@ -66,7 +66,7 @@ import org.xml.sax.SAXException;
  * {@code       <and> <matcher/>...</and>}<br/>
  * {@code       <or> <matcher/>...</or> }<br/>
  * {@code       <matcher_ref refid='' />}<br/>
- * {@code       <not><matcher /></not>}<br/>
+ * {@code       <not lines='' chars=''><matcher /></not>}<br/>
  * {@code     </license>}<br/>
  * {@code   </licenses>}<br/>
  * {@code   <approved>}<br/>
@@ -87,6 +87,8 @@ public class XMLConfigurationReader implements LicenseReader, MatcherReader {
     private final static String ATT_DERIVED_FROM = "derived_from";
     private final static String ATT_LICENSE_REF = "license_ref";
     private final static String ATT_CLASS_NAME = "class";
+    private final static String ATT_SCAN_LINE_LIMIT = "scan_line_limit";
+    private final static String ATT_SCAN_CHAR_LIMIT = "scan_char_limit";
 
     private final static String ROOT = "rat-config";
     private final static String LICENSES = "licenses";
@@ -278,6 +280,17 @@ public class XMLConfigurationReader implements LicenseReader, MatcherReader {
         });
         builder.setDerivedFrom(StringUtils.defaultIfBlank(attributes.get(ATT_DERIVED_FROM), null));
         builder.setNotes(StringUtils.defaultIfBlank(notesBuilder.toString().trim(), null));
+        try {
+            if (attributes.containsKey(ATT_SCAN_LINE_LIMIT)) {
+                builder.setScanLineLimit(Integer.parseInt(attributes.get(ATT_SCAN_LINE_LIMIT)));
+            }
+            if (attributes.containsKey(ATT_SCAN_CHAR_LIMIT)) {
+                builder.setScanCharLimit(Long.parseLong(attributes.get(ATT_SCAN_CHAR_LIMIT)));
+            }
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException(
+                    String.format("scan limits of license '%s' must be integers", attributes.get(ATT_ID)), e);
+        }
         return builder.build();
     }
 
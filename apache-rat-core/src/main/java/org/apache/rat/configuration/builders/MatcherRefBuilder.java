@@ -64,6 +64,22 @@ public class MatcherRefBuilder extends AbstractBuilder {
     public String toString() {
         return "MathcerRefBuilder: "+referenceId;
     }
+
+    /**
+     * Resolves a matcher that may be a reference to another matcher.
+     * @param matcher the matcher to resolve.
+     * @return the referenced matcher if {@code matcher} is a reference, {@code matcher} otherwise.
+     * @throws IllegalStateException if the reference can not be resolved.
+     */
+    public static IHeaderMatcher resolve(IHeaderMatcher matcher) {
+        IHeaderMatcher result = matcher;
+        while (result instanceof IHeaderMatcherProxy) {
+            IHeaderMatcherProxy proxy = (IHeaderMatcherProxy) result;
+            proxy.checkProxy();
+            result = proxy.wrapped;
+        }
+        return result;
+    }
     
     /**
      * A class that is a proxy to the actual matcher.  It retrieves the actual matcher from the map of
@@ -26,13 +26,44 @@ import org.apache.rat.analysis.matchers.NotMatcher;
  * A builder for the NotMatcher.
  */
 public class NotBuilder extends ChildContainerBuilder {
-    
+
+    private int lines;
+    private long chars;
+
+    /**
+     * Sets the number of lines after which the enclosed matcher is finalized.
+     * @param lines the number of lines in the horizon.
+     * @return this builder for chaining.
+     */
+    public NotBuilder setLines(String lines) {
+        try {
+            this.lines = Integer.parseInt(lines);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("'not' lines must be an integer", e);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of characters after which the enclosed matcher is finalized.
+     * @param chars the number of characters in the horizon.
+     * @return this builder for chaining.
+     */
+    public NotBuilder setChars(String chars) {
+        try {
+            this.chars = Long.parseLong(chars);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("'not' chars must be an integer", e);
+        }
+        return this;
+    }
+
     @Override
     public IHeaderMatcher build() {
         if (children.size() != 1) {
             throw new ConfigurationException("'not' type matcher requires one and only one enclosed matcher");
         }
-        return new NotMatcher(getId(), children.get(0).build());
+        return new NotMatcher(getId(), children.get(0).build(), lines, chars);
     }
     
     @Override
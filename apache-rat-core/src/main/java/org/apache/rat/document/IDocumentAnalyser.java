@@ -24,4 +24,14 @@ import org.apache.rat.api.Document;
 public interface IDocumentAnalyser {
 
     void analyse(Document document) throws RatDocumentAnalysisException;
+
+    /**
+     * Tells whether {@link #analyse(Document)} reads the content of the document, so that callers need not read the
+     * content ahead of the analysis when it is not used.
+     * @param document the document to analyse.
+     * @return {@code true} unless the analysis is known not to read the content of the document.
+     */
+    default boolean readsContent(Document document) {
+        return true;
+    }
 }
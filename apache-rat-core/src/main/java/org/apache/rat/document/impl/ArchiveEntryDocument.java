@@ -30,6 +30,9 @@ import org.apache.rat.api.Document;
 import org.apache.rat.api.MetaData;
 import org.apache.rat.api.RatException;
 
+/**
+ * A document read from an archive entry.  The contents may only be a prefix of the entry.
+ */
 public class ArchiveEntryDocument implements Document {
 
     private final byte[] contents;
@@ -38,8 +41,17 @@ public class ArchiveEntryDocument implements Document {
     private final MetaData metaData = new MetaData();
 
     public ArchiveEntryDocument(File file, byte[] contents) throws RatException {
+        this(DocumentImplUtils.toName(file), contents);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the document, for nested archives the composite path of the entry.
+     * @param contents the contents, or the start of the contents, of the entry.
+     */
+    public ArchiveEntryDocument(String name, byte[] contents) {
         super();
-        name = DocumentImplUtils.toName(file);
+        this.name = name;
         this.contents = contents;
     }
 
@@ -24,6 +24,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import org.apache.rat.api.Document;
 import org.apache.rat.api.MetaData;
@@ -35,12 +36,23 @@ import org.apache.rat.api.MetaData;
 public class FileDocument implements Document {
 
     private final File file;
+    private final BasicFileAttributes attributes;
     private final String name;
     private final MetaData metaData = new MetaData();
     
     public FileDocument(final File file) {
+        this(file, null);
+    }
+
+    /**
+     * Constructor.
+     * @param file the file that holds the document.
+     * @param attributes the attributes of the file, or null if they have not been read.
+     */
+    public FileDocument(final File file, final BasicFileAttributes attributes) {
         super();
         this.file = file;
+        this.attributes = attributes;
         name = DocumentImplUtils.toName(file);
     }
 
@@ -59,6 +71,16 @@ public class FileDocument implements Document {
     public MetaData getMetaData() {
         return metaData;
     }    
+
+    @Override
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public BasicFileAttributes getFileAttributes() {
+        return attributes;
+    }
     
     public InputStream inputStream() throws IOException {
         return new FileInputStream(file);
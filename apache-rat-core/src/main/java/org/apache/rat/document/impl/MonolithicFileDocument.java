@@ -69,4 +69,9 @@ public class MonolithicFileDocument extends AbstractMonolithicDocument {
      public InputStream inputStream() throws IOException {
         return new FileInputStream(file);
     }
+
+    @Override
+    public File getFile() {
+        return file;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.document.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.api.Document;
+import org.apache.rat.api.MetaData;
+
+/**
+ * Document that holds the start of the content of another document in memory, so that the content can be read
+ * on one thread and analysed on another.  The rest of the content is read from the wrapped document only if it is
+ * needed.  The name, the meta data and the file are those of the wrapped document.
+ */
+public class PrefetchedDocument implements Document {
+
+    /**
+     * The number of bytes read in advance by default.
+     */
+    public static final int DEFAULT_PREFETCH_LENGTH = 16 * 1024;
+
+    private final Document document;
+    private final byte[] prefix;
+    private final boolean complete;
+
+    /**
+     * Constructor.  Reads up to {@code length} bytes from the document.
+     * @param document the document to read.
+     * @param length the number of bytes to read in advance.
+     * @throws IOException if the document can not be read.
+     */
+    public PrefetchedDocument(final Document document, final int length) throws IOException {
+        this.document = document;
+        byte[] buffer = new byte[length];
+        int read;
+        try (InputStream in = document.inputStream()) {
+            read = IOUtils.read(in, buffer);
+            complete = read < length || in.read() == -1;
+        }
+        prefix = read < length ? Arrays.copyOf(buffer, read) : buffer;
+    }
+
+    /**
+     * @return the document that this document reads from.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    @Override
+    public String getName() {
+        return document.getName();
+    }
+
+    @Override
+    public Reader reader() throws IOException {
+        return new InputStreamReader(inputStream());
+    }
+
+    @Override
+    public InputStream inputStream() throws IOException {
+        InputStream in = new ByteArrayInputStream(prefix);
+        return complete ? in : new SequenceInputStream(in, new Remainder());
+    }
+
+    @Override
+    public MetaData getMetaData() {
+        return document.getMetaData();
+    }
+
+    @Override
+    public boolean isComposite() {
+        return document.isComposite();
+    }
+
+    @Override
+    public File getFile() {
+        return document.getFile();
+    }
+
+    @Override
+    public BasicFileAttributes getFileAttributes() {
+        return document.getFileAttributes();
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchedDocument ( document = " + document + " )";
+    }
+
+    /**
+     * The content that follows the prefix, opened when it is first read.
+     */
+    private class Remainder extends InputStream {
+        private InputStream in;
+
+        private InputStream open() throws IOException {
+            if (in == null) {
+                in = document.inputStream();
+                IOUtils.skipFully(in, prefix.length);
+            }
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return open().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+}
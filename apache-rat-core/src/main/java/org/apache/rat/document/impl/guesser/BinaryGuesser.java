@@ -106,37 +106,50 @@ public class BinaryGuesser {
      */
     public static boolean isBinary(InputStream in) {
         try {
-            byte[] taste = new byte[200];
-            int bytesRead = in.read(taste);
-            if (bytesRead > 0) {
-                ByteBuffer bytes = ByteBuffer.wrap(taste, 0, bytesRead);
-                CharBuffer chars = CharBuffer.allocate(2 * bytesRead);
-                CharsetDecoder cd = CHARSET_FROM_FILE_ENCODING_OR_UTF8.newDecoder()
-                        .onMalformedInput(CodingErrorAction.REPORT)
-                        .onUnmappableCharacter(CodingErrorAction.REPORT);
-                while (bytes.remaining() > 0) {
-                    CoderResult res = cd.decode(bytes, chars, true);
-                    if (res.isMalformed() || res.isUnmappable()) {
-                        return true;
-                    } else if (res.isOverflow()) {
-                        chars.limit(chars.position());
-                        chars.rewind();
-                        int c = chars.capacity() * 2;
-                        CharBuffer on = CharBuffer.allocate(c);
-                        on.put(chars);
-                        chars = on;
-                    }
-                }
-                chars.limit(chars.position());
-                chars.rewind();
-                return isBinary(chars);
-            }
+            byte[] taste = new byte[TASTE_LENGTH];
+            return isBinary(taste, in.read(taste));
         } catch (IOException e) {
             // SWALLOW 
         }
         return false;
     }
 
+    /**
+     * @param taste the first bytes of the document, usually {@link #TASTE_LENGTH} bytes.
+     * @param bytesRead the number of valid bytes in {@code taste}.
+     * @return Do the bytes hint at a binary file?
+     * <p>The bytes are translated to characters according to the platform's
+     * default encoding.  If any bytes can not be translated to
+     * characters it will assume the original data must be binary and
+     * return true.</p>
+     */
+    public static boolean isBinary(byte[] taste, int bytesRead) {
+        if (bytesRead > 0) {
+            ByteBuffer bytes = ByteBuffer.wrap(taste, 0, bytesRead);
+            CharBuffer chars = CharBuffer.allocate(2 * bytesRead);
+            CharsetDecoder cd = CHARSET_FROM_FILE_ENCODING_OR_UTF8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            while (bytes.remaining() > 0) {
+                CoderResult res = cd.decode(bytes, chars, true);
+                if (res.isMalformed() || res.isUnmappable()) {
+                    return true;
+                } else if (res.isOverflow()) {
+                    chars.limit(chars.position());
+                    chars.rewind();
+                    int c = chars.capacity() * 2;
+                    CharBuffer on = CharBuffer.allocate(c);
+                    on.put(chars);
+                    chars = on;
+                }
+            }
+            chars.limit(chars.position());
+            chars.rewind();
+            return isBinary(chars);
+        }
+        return false;
+    }
+
     static Charset getFileEncodingOrUTF8AsFallback() {
         try {
             return Charset.forName(System.getProperty(FILE_ENCODING));
@@ -362,6 +375,10 @@ public class BinaryGuesser {
     public static final int TOTAL_READ_RATIO = 30;
     public static final int NON_ASCII_THRESHOLD = 256;
     public static final int ASCII_CHAR_THRESHOLD = 8;
+    /**
+     * The number of bytes read from the start of a document to guess if it is binary.
+     */
+    public static final int TASTE_LENGTH = 200;
 
     public static final boolean isBinary(final Document document) {
         // TODO: reimplement the binary test algorithm?
@@ -37,4 +37,14 @@ public class DocumentAnalyserMultiplexer implements IDocumentAnalyser {
         }
     }
 
+    @Override
+    public boolean readsContent(Document document) {
+        for (IDocumentAnalyser analyser : analysers) {
+            if (analyser.readsContent(document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
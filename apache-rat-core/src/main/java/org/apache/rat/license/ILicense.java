@@ -41,6 +41,30 @@ public interface ILicense extends IHeaderMatcher, Comparable<ILicense> {
      */
     String derivedFrom();
 
+    /**
+     * Gets the matcher that determines whether a document matches this license.
+     * Implementations that do not wrap a separate matcher return the license itself.
+     * @return the matcher for this license.
+     */
+    default IHeaderMatcher getMatcher() {
+        return this;
+    }
+
+    /**
+     * The limit is configuration only, the lines are counted for each document by the analysis.
+     * @return the maximum number of lines to match against this license, 0 for no limit.
+     */
+    default int getScanLineLimit() {
+        return 0;
+    }
+
+    /**
+     * @return the maximum number of characters to match against this license, 0 for no limit.
+     */
+    default long getScanCharLimit() {
+        return 0;
+    }
+
     /**
      * @return An ILicense.Builder instance.
      */
@@ -109,6 +133,24 @@ public interface ILicense extends IHeaderMatcher, Comparable<ILicense> {
          * @return this builder for chaining.
          */
         Builder setLicenseFamilyName(String licenseFamilyName);
+
+        /**
+         * Sets the maximum number of lines this license examines. Once the limit is
+         * reached the state of the license is finalized and no further lines are
+         * examined.
+         * @param scanLineLimit the maximum number of lines, 0 for no limit.
+         * @return this builder for chaining.
+         */
+        Builder setScanLineLimit(int scanLineLimit);
+
+        /**
+         * Sets the maximum number of characters this license examines. Once the limit
+         * is reached the state of the license is finalized and no further lines are
+         * examined.
+         * @param scanCharLimit the maximum number of characters, 0 for no limit.
+         * @return this builder for chaining.
+         */
+        Builder setScanCharLimit(long scanCharLimit);
     }
 
 }
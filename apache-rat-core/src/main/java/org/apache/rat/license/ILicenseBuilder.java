@@ -32,6 +32,10 @@ class ILicenseBuilder implements Builder {
 
     private String derivedFrom;
 
+    private int scanLineLimit;
+
+    private long scanCharLimit;
+
     private final ILicenseFamily.Builder licenseFamily = ILicenseFamily.builder();
 
     @Override
@@ -70,8 +74,21 @@ class ILicenseBuilder implements Builder {
         return this;
     }
 
+    @Override
+    public Builder setScanLineLimit(int scanLineLimit) {
+        this.scanLineLimit = scanLineLimit;
+        return this;
+    }
+
+    @Override
+    public Builder setScanCharLimit(long scanCharLimit) {
+        this.scanCharLimit = scanCharLimit;
+        return this;
+    }
+
     @Override
     public ILicense build() {
-        return new SimpleLicense(licenseFamily.build(), matcher.build(), derivedFrom, notes);
+        return new SimpleLicense(licenseFamily.build(), matcher.build(), derivedFrom, notes, scanLineLimit,
+                scanCharLimit);
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@
  */
 package org.apache.rat.license;
 
+import org.apache.rat.ConfigurationException;
 import org.apache.rat.analysis.IHeaderMatcher;
 
 /**
@@ -29,12 +30,24 @@ class SimpleLicense implements ILicense {
     private IHeaderMatcher matcher;
     private String derivedFrom;
     private String notes;
+    private final int scanLineLimit;
+    private final long scanCharLimit;
 
     SimpleLicense(ILicenseFamily family, IHeaderMatcher matcher, String derivedFrom, String notes) {
+        this(family, matcher, derivedFrom, notes, 0, 0);
+    }
+
+    SimpleLicense(ILicenseFamily family, IHeaderMatcher matcher, String derivedFrom, String notes,
+            int scanLineLimit, long scanCharLimit) {
+        if (scanLineLimit < 0 || scanCharLimit < 0) {
+            throw new ConfigurationException("Scan limits may not be less than zero");
+        }
         this.family = family;
         this.matcher = matcher;
         this.derivedFrom = derivedFrom;
         this.notes = notes;
+        this.scanLineLimit = scanLineLimit;
+        this.scanCharLimit = scanCharLimit;
     }
 
     @Override
@@ -50,6 +63,7 @@ class SimpleLicense implements ILicense {
         this.family = family;
     }
 
+    @Override
     public IHeaderMatcher getMatcher() {
         return matcher;
     }
@@ -58,6 +72,16 @@ class SimpleLicense implements ILicense {
         this.matcher = matcher;
     }
 
+    @Override
+    public int getScanLineLimit() {
+        return scanLineLimit;
+    }
+
+    @Override
+    public long getScanCharLimit() {
+        return scanCharLimit;
+    }
+
     public void setDerivedFrom(String derivedFrom) {
         this.derivedFrom = derivedFrom;
     }
@@ -67,6 +67,14 @@ public class DefaultPolicy implements IDocumentAnalyser {
         }
     }
 
+    /**
+     * The policy only reads the meta data of the document.
+     */
+    @Override
+    public boolean readsContent(final Document document) {
+        return false;
+    }
+
     /**
      * Report if the document as either having approved license or not.
      * @param document the document to approve.
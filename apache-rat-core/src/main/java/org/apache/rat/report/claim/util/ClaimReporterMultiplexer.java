@@ -22,21 +22,122 @@ import org.apache.rat.api.Document;
 import org.apache.rat.api.RatException;
 import org.apache.rat.document.IDocumentAnalyser;
 import org.apache.rat.document.RatDocumentAnalysisException;
+import org.apache.rat.document.impl.PrefetchedDocument;
 import org.apache.rat.report.RatReport;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-
+/**
+ * Runs the analyser over each document and then passes the document to each of the reporters.
+ * <p>
+ * When constructed with more than one thread the documents pass through a pipeline: the start of the content of
+ * each document held in a file whose content the analyser reads is read on a pool of I/O threads, the analysis is performed on a {@link ForkJoinPool}
+ * and a single thread hands the analysed documents to the reporters one at a time, in the order in which they were
+ * passed to {@link #report(Document)}.  The report output therefore does not depend on the number of threads, while
+ * the latency of reading one document overlaps with the analysis of others.  The number of documents in the
+ * pipeline is bounded, {@link #report(Document)} blocks until there is room for another.  Once the analysis or a
+ * reporter has failed, or the report has been {@link #abort() aborted}, the pipeline is shut down and every later call
+ * rethrows the failure.
+ * </p>
+ */
 public class ClaimReporterMultiplexer implements RatReport {
+    /**
+     * The number of documents per thread that may be queued for analysis before
+     * {@link #report(Document)} blocks.
+     */
+    private static final int DOCUMENTS_PER_THREAD = 16;
+
+    /**
+     * Marks the end of the documents in the queue.
+     */
+    private static final CompletableFuture<Document> END = CompletableFuture.completedFuture(null);
+
     private final IDocumentAnalyser analyser;
     private final List<? extends RatReport> reporters;
+    private final int threads;
+    private BlockingQueue<CompletableFuture<Document>> queue;
+    private ExecutorService ioPool;
+    private ForkJoinPool cpuPool;
+    private Thread sink;
+    /** The first failure of the analysis, the reporters or the pipeline itself. */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
 
     public ClaimReporterMultiplexer(final IDocumentAnalyser pAnalyser, final List<? extends RatReport> reporters) {
+        this(pAnalyser, reporters, 1);
+    }
+
+    /**
+     * Constructs a multiplexer that analyses documents on the specified number of threads.
+     * <p>
+     * When more than one thread is used the documents passed to {@link #report(Document)} must be
+     * distinct instances, the analyser must be safe to call concurrently and the reporters are called
+     * on a thread of their own.
+     * </p>
+     * @param pAnalyser the analyser to apply to each document. May be null.
+     * @param reporters the reporters to pass each analysed document to.
+     * @param threads the number of threads to read and to analyse documents with.
+     */
+    public ClaimReporterMultiplexer(final IDocumentAnalyser pAnalyser, final List<? extends RatReport> reporters,
+            final int threads) {
         analyser = pAnalyser;
         this.reporters = reporters;
+        this.threads = threads;
     }
 
     public void report(Document document) throws RatException {
+        if (queue == null) {
+            analyse(document);
+            sendToReporters(document);
+        } else {
+            checkFailure();
+            CompletableFuture<Document> analysed = CompletableFuture.supplyAsync(() -> prefetch(document), ioPool)
+                    .thenApplyAsync(prefetched -> {
+                        try {
+                            analyse(prefetched);
+                        } catch (RatException e) {
+                            throw new CompletionException(e);
+                        }
+                        return document;
+                    }, cpuPool);
+            try {
+                queue.put(analysed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shutdown(new RatException("Interrupted while waiting for document analysis", e));
+            }
+        }
+    }
+
+    /**
+     * Reads the start of a document that is held in a file, unless the analyser does not read its content, for
+     * instance because the result is cached.  Other documents, such as archive entries, are already held in memory.
+     * @param document the document to read.
+     * @return the document to analyse.
+     */
+    private Document prefetch(Document document) {
+        if (document.getFile() == null || analyser == null || !analyser.readsContent(document)) {
+            return document;
+        }
+        try {
+            return new PrefetchedDocument(document, PrefetchedDocument.DEFAULT_PREFETCH_LENGTH);
+        } catch (IOException e) {
+            // the analyser reports the document that can not be read
+            return document;
+        }
+    }
+
+    private void analyse(Document document) throws RatException {
         if (analyser != null) {
             try {
                 analyser.analyse(document);
@@ -44,18 +145,142 @@ public class ClaimReporterMultiplexer implements RatReport {
                 throw new RatException(e.getMessage(), e);
             }
         }
+    }
+
+    private void sendToReporters(Document document) throws RatException {
         for (RatReport report : reporters) {
             report.report(document);
-        } 
+        }
+    }
+
+    /**
+     * Sends the analysed documents to the reporters in order until the end of the documents.  After a failure the
+     * remaining documents are discarded so that {@link #report(Document)} does not block.
+     * @param queue the queue of the pipeline this thread drains.
+     */
+    private void drain(BlockingQueue<CompletableFuture<Document>> queue) {
+        try {
+            CompletableFuture<Document> next;
+            while ((next = queue.take()) != END) {
+                if (failure.get() == null) {
+                    try {
+                        sendToReporters(next.get());
+                    } catch (ExecutionException e) {
+                        failure.compareAndSet(null, e.getCause());
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // shut down after a failure or an abort
+        }
+    }
+
+    /**
+     * Throws the first failure of the pipeline, if there is one, after shutting the pipeline down.
+     * @throws RatException if the failure is a checked exception.
+     */
+    private void checkFailure() throws RatException {
+        if (failure.get() != null) {
+            shutdown(failure.get());
+        }
+    }
+
+    /**
+     * Shuts the pipeline down and throws the first failure of the pipeline, which is {@code cause} unless the
+     * pipeline has already failed.  The pipeline stays failed until the next {@link #startReport()}.
+     * @param cause the failure to record.
+     * @throws RatException if the first failure is a checked exception.
+     */
+    private void shutdown(Throwable cause) throws RatException {
+        failure.compareAndSet(null, cause);
+        stop();
+        rethrow(failure.get());
+    }
+
+    /**
+     * Stops the threads of the pipeline and discards the documents in it.
+     */
+    private void stop() {
+        ioPool.shutdownNow();
+        cpuPool.shutdownNow();
+        queue.clear();
+        sink.interrupt();
+    }
+
+    /**
+     * Shuts the pipeline down without passing the remaining documents to the reporters, for instance because the
+     * documents could not all be walked.  The reporters are not ended and every later call fails, until the next
+     * {@link #startReport()}.
+     */
+    public void abort() {
+        if (queue != null) {
+            failure.compareAndSet(null, new RatException("The report was aborted"));
+            stop();
+            try {
+                sink.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void rethrow(Throwable cause) throws RatException {
+        if (cause instanceof RatException) {
+            throw (RatException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new RatException(cause.getMessage(), cause);
     }
 
     public void startReport() throws RatException {
         for (RatReport report : reporters) {
             report.startReport();
-        } 
+        }
+        if (threads > 1) {
+            AtomicInteger count = new AtomicInteger();
+            ioPool = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "rat-prefetch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            cpuPool = new ForkJoinPool(threads);
+            final BlockingQueue<CompletableFuture<Document>> pipeline = new ArrayBlockingQueue<>(
+                    threads * DOCUMENTS_PER_THREAD);
+            queue = pipeline;
+            failure.set(null);
+            sink = new Thread(() -> drain(pipeline), "rat-report");
+            sink.setDaemon(true);
+            sink.start();
+        }
     }
 
     public void endReport() throws RatException {
+        if (queue != null) {
+            checkFailure();
+            try {
+                queue.put(END);
+                sink.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shutdown(new RatException("Interrupted while waiting for document analysis", e));
+            }
+            checkFailure();
+            ioPool.shutdown();
+            cpuPool.shutdown();
+            queue = null;
+            sink = null;
+            ioPool = null;
+            cpuPool = null;
+        }
         for (RatReport report : reporters) {
             report.endReport();
         } 
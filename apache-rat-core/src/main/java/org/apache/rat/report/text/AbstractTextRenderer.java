@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.text;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Base class for renderers that produce a text report from the SAX events of the XML report.  Only the current
+ * resource is held in memory.  As with the XSLT text output method, line feeds are written as the platform line
+ * separator.
+ */
+public abstract class AbstractTextRenderer extends DefaultHandler {
+    private static final String RAT_REPORT = "rat-report";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String RESOURCE = "resource";
+    private static final String HEADER_SAMPLE = "header-sample";
+    private static final String HEADER_TYPE = "header-type";
+    private static final String LICENSE_APPROVAL = "license-approval";
+    private static final String TYPE = "type";
+    private static final String NAME = "name";
+
+    /** The writer the report is written to. */
+    protected final Writer out;
+    private Resource current;
+    private StringBuilder sample;
+
+    /**
+     * A resource as it is reported in the XML report.
+     */
+    protected static final class Resource {
+        private final String name;
+        private String headerType;
+        private String type;
+        private String headerSample;
+        private boolean unapproved;
+
+        private Resource(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the resource.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the header type or {@code null} if there is none.
+         */
+        public String getHeaderType() {
+            return headerType;
+        }
+
+        /**
+         * @return the document type or {@code null} if there is none.
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return the header sample or {@code null} if there is none.
+         */
+        public String getHeaderSample() {
+            return headerSample;
+        }
+
+        /**
+         * @return {@code true} if the license of the resource is not approved.
+         */
+        public boolean isUnapproved() {
+            return unapproved;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param out the writer to write the report to.
+     */
+    protected AbstractTextRenderer(Writer out) {
+        this.out = "\n".equals(System.lineSeparator()) ? out : new LineSeparatorWriter(out);
+    }
+
+    /**
+     * Replaces line feeds with the platform line separator.
+     */
+    private static final class LineSeparatorWriter extends FilterWriter {
+        private LineSeparatorWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (c == '\n') {
+                out.write(System.lineSeparator());
+            } else {
+                out.write(c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (cbuf[i] == '\n') {
+                    out.write(cbuf, start, i - start);
+                    out.write(System.lineSeparator());
+                    start = i + 1;
+                }
+            }
+            out.write(cbuf, start, off + len - start);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            write(str.toCharArray(), off, len);
+        }
+    }
+
+    /**
+     * Called when the report starts.
+     * @param timestamp the timestamp of the report.
+     * @throws IOException on error.
+     */
+    protected abstract void startReport(String timestamp) throws IOException;
+
+    /**
+     * Called for each resource once all of its claims have been read.
+     * @param resource the resource.
+     * @throws IOException on error.
+     */
+    protected abstract void resource(Resource resource) throws IOException;
+
+    /**
+     * Called when the report ends.
+     * @throws IOException on error.
+     */
+    protected abstract void endReport() throws IOException;
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException {
+        try {
+            switch (qName) {
+            case RAT_REPORT:
+                startReport(attributes.getValue(TIMESTAMP));
+                break;
+            case RESOURCE:
+                current = new Resource(attributes.getValue(NAME));
+                break;
+            case HEADER_SAMPLE:
+                sample = new StringBuilder();
+                break;
+            case HEADER_TYPE:
+                if (current != null && current.headerType == null) {
+                    current.headerType = attributes.getValue(NAME);
+                }
+                break;
+            case TYPE:
+                if (current != null && current.type == null) {
+                    current.type = attributes.getValue(NAME);
+                }
+                break;
+            case LICENSE_APPROVAL:
+                if (current != null && "false".equals(attributes.getValue(NAME))) {
+                    current.unapproved = true;
+                }
+                break;
+            default:
+                break;
+            }
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (sample != null) {
+            sample.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        try {
+            switch (qName) {
+            case RAT_REPORT:
+                endReport();
+                out.flush();
+                break;
+            case RESOURCE:
+                if (current != null) {
+                    resource(current);
+                    current = null;
+                }
+                break;
+            case HEADER_SAMPLE:
+                if (current != null && current.headerSample == null) {
+                    current.headerSample = sample.toString();
+                }
+                sample = null;
+                break;
+            default:
+                break;
+            }
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+}
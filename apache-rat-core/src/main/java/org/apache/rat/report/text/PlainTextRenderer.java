@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Renders the report as the {@code plain-rat.xsl} style sheet does.  The summary at the top of the report depends
+ * on every resource, so the sections that list resources are collected in {@link TextSpool}s, which move to
+ * temporary files once they grow large, and written when the report ends.
+ */
+public class PlainTextRenderer extends AbstractTextRenderer {
+    private static final String SEPARATOR = "*****************************************************\n";
+    private static final String FILE_SEPARATOR = "=====================================================\n";
+    private static final String UNKNOWN = "?????";
+
+    private String timestamp;
+    private int notices;
+    private int binaries;
+    private int archives;
+    private int standards;
+    private int apacheLicensed;
+    private int generated;
+    private int unknown;
+    private boolean hasUnapproved;
+
+    private final TextSpool unapprovedList = new TextSpool();
+    private final TextSpool archiveList = new TextSpool();
+    private final TextSpool resourceList = new TextSpool();
+    private final TextSpool headerList = new TextSpool();
+
+    /**
+     * Constructor.
+     * @param out the writer to write the report to.
+     */
+    public PlainTextRenderer(Writer out) {
+        super(out);
+    }
+
+    @Override
+    protected void startReport(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    protected void resource(Resource resource) throws IOException {
+        String type = resource.getType();
+        String headerType = resource.getHeaderType();
+        String mark;
+        if ("notice".equals(type)) {
+            notices++;
+            mark = "N    ";
+        } else if ("archive".equals(type)) {
+            archives++;
+            mark = "A    ";
+            archiveList.append("\n + ").append(resource.getName()).append("\n ");
+        } else if ("binary".equals(type)) {
+            binaries++;
+            mark = "B    ";
+        } else if ("standard".equals(type)) {
+            standards++;
+            mark = headerType == null ? "" : headerType;
+        } else {
+            mark = "!!!!!";
+        }
+        if ("AL   ".equals(headerType)) {
+            apacheLicensed++;
+        } else if ("GEN  ".equals(headerType)) {
+            generated++;
+        } else if (UNKNOWN.equals(headerType)) {
+            unknown++;
+            headerList.append("\n").append(FILE_SEPARATOR).append("== File: ").append(resource.getName())
+                    .append("\n").append(FILE_SEPARATOR);
+            if (resource.getHeaderSample() != null) {
+                headerList.append(resource.getHeaderSample());
+            }
+        }
+        if (resource.isUnapproved()) {
+            hasUnapproved = true;
+            unapprovedList.append("  ").append(resource.getName()).append("\n");
+        }
+        resourceList.append(resource.isUnapproved() ? "!" : " ").append(mark).append(" ").append(resource.getName())
+                .append("\n ");
+    }
+
+    @Override
+    protected void endReport() throws IOException {
+        try {
+            out.write("\n");
+            out.write(SEPARATOR);
+            out.write("Summary\n-------\nGenerated at: ");
+            out.write(timestamp == null ? "" : timestamp);
+            out.write("\n\nNotes: " + notices);
+            out.write("\nBinaries: " + binaries);
+            out.write("\nArchives: " + archives);
+            out.write("\nStandards: " + standards);
+            out.write("\n\nApache Licensed: " + apacheLicensed);
+            out.write("\nGenerated Documents: " + generated);
+            out.write("\n\nJavaDocs are generated, thus a license header is optional.\n"
+                    + "Generated files do not require license headers.\n\n");
+            out.write(unknown + " Unknown Licenses\n");
+            if (hasUnapproved) {
+                out.write("\n");
+                out.write(SEPARATOR);
+                out.write("\nFiles with unapproved licenses:\n\n");
+                unapprovedList.writeTo(out);
+                out.write("\n");
+                out.write(SEPARATOR);
+            }
+            if (archives > 0) {
+                out.write("\nArchives:\n");
+                archiveList.writeTo(out);
+            }
+            out.write("\n");
+            out.write(SEPARATOR);
+            out.write("  Files with Apache License headers will be marked AL\n"
+                    + "  Binary files (which do not require any license headers) will be marked B\n"
+                    + "  Compressed archives will be marked A\n"
+                    + "  Notices, licenses etc. will be marked N\n ");
+            resourceList.writeTo(out);
+            out.write("\n");
+            out.write(SEPARATOR);
+            if (unknown > 0) {
+                out.write("\n Printing headers for text files without a valid license header...\n ");
+                headerList.writeTo(out);
+            }
+        } finally {
+            unapprovedList.close();
+            archiveList.close();
+            resourceList.close();
+            headerList.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Collects text to be written later.  Text is kept in memory until it exceeds a limit, after which it is moved to
+ * a temporary file that is deleted when the spool is closed.
+ */
+final class TextSpool implements Closeable {
+    /** The number of characters kept in memory before the text is moved to a file. */
+    static final int MEMORY_LIMIT = 64 * 1024;
+
+    private final StringBuilder memory = new StringBuilder();
+    private Path file;
+    private Writer fileWriter;
+
+    /**
+     * Appends text to the spool.
+     * @param text the text to append.
+     * @return this spool.
+     * @throws IOException on error.
+     */
+    TextSpool append(CharSequence text) throws IOException {
+        if (fileWriter != null) {
+            fileWriter.append(text);
+        } else {
+            memory.append(text);
+            if (memory.length() > MEMORY_LIMIT) {
+                file = Files.createTempFile("rat", ".txt");
+                fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                fileWriter.append(memory);
+                memory.setLength(0);
+                memory.trimToSize();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes the spooled text.
+     * @param out the writer to write to.
+     * @throws IOException on error.
+     */
+    void writeTo(Writer out) throws IOException {
+        if (fileWriter == null) {
+            out.append(memory);
+            return;
+        }
+        fileWriter.flush();
+        char[] buffer = new char[8192];
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        memory.setLength(0);
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } finally {
+                Files.deleteIfExists(file);
+                fileWriter = null;
+                file = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Renders the list of files with unapproved licenses as the {@code unapproved-licenses.xsl} style sheet does.
+ * Each file is written as soon as it is reported.
+ */
+public class UnapprovedLicensesRenderer extends AbstractTextRenderer {
+
+    /**
+     * Constructor.
+     * @param out the writer to write the report to.
+     */
+    public UnapprovedLicensesRenderer(Writer out) {
+        super(out);
+    }
+
+    @Override
+    protected void startReport(String timestamp) throws IOException {
+        out.write("Files with unapproved licenses:\n");
+    }
+
+    @Override
+    protected void resource(Resource resource) throws IOException {
+        if (resource.isUnapproved()) {
+            out.write("  ");
+            out.write(resource.getName());
+            out.write('\n');
+        }
+    }
+
+    @Override
+    protected void endReport() {
+        // nothing to add
+    }
+}
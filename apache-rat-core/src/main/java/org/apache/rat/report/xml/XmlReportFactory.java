@@ -19,9 +19,11 @@
 package org.apache.rat.report.xml;
 
 import org.apache.rat.ReportConfiguration;
+import org.apache.rat.analysis.AnalysisCache;
 import org.apache.rat.analysis.DefaultAnalyserFactory;
 import org.apache.rat.document.IDocumentAnalyser;
 import org.apache.rat.document.impl.util.DocumentAnalyserMultiplexer;
+import org.apache.rat.license.ILicense;
 import org.apache.rat.license.LicenseSetFactory.LicenseFilter;
 import org.apache.rat.policy.DefaultPolicy;
 import org.apache.rat.report.RatReport;
@@ -33,6 +35,7 @@ import org.apache.rat.report.claim.util.LicenseAddingReport;
 import org.apache.rat.report.xml.writer.IXmlWriter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,12 +47,14 @@ public class XmlReportFactory {
      * Creates a RatReport from the arguments.
      * The {@code statistic} is used to create a ClaimAggregator.
      * If the {@code configuration} indicates that licenses should be added a LicenseAddingReport is added.
+     * Documents are analysed on the number of threads specified by the {@code configuration}.
+     * If the {@code configuration} specifies a cache file unchanged documents are not analysed again.
      * @param writer The XML writer to send output to.
      * @param statistic the ClaimStatistics for the report. may be null.
      * @param configuration The report configuration.
      * @return a RatReport instance.
      */
-    public static final RatReport createStandardReport(IXmlWriter writer,
+    public static final ClaimReporterMultiplexer createStandardReport(IXmlWriter writer,
             final ClaimStatistic statistic, ReportConfiguration configuration) {
         final List<RatReport> reporters = new ArrayList<>();
         if (statistic != null) {
@@ -60,12 +65,19 @@ public class XmlReportFactory {
         }
         reporters.add(new SimpleXmlClaimReporter(writer));
 
-        final IDocumentAnalyser analyser =
-            DefaultAnalyserFactory.createDefaultAnalyser(configuration.getLicenses(LicenseFilter.all));
+        final Collection<ILicense> licenses = configuration.getLicenses(LicenseFilter.all);
+        IDocumentAnalyser analyser = DefaultAnalyserFactory.createDefaultAnalyser(licenses,
+                configuration.getScanLineLimit(), configuration.getScanCharLimit());
+        if (configuration.getCacheFile() != null) {
+            final AnalysisCache cache = new AnalysisCache(configuration.getCacheFile(),
+                    DefaultAnalyserFactory.fingerprint(analyser), analyser);
+            reporters.add(cache);
+            analyser = cache;
+        }
         final DefaultPolicy policy = new DefaultPolicy(configuration.getLicenseFamilies(LicenseFilter.approved));
 
         final IDocumentAnalyser[] analysers = {analyser, policy};
         DocumentAnalyserMultiplexer analysisMultiplexer = new DocumentAnalyserMultiplexer(analysers);
-        return new ClaimReporterMultiplexer(analysisMultiplexer, reporters);
+        return new ClaimReporterMultiplexer(analysisMultiplexer, reporters, configuration.getThreads());
     }
 }
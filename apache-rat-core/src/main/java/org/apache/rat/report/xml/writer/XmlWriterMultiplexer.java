@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.report.xml.writer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An {@link IXmlWriter} that passes each operation on to several writers, so that one report can be written to
+ * several outputs.
+ */
+public class XmlWriterMultiplexer implements IXmlWriter {
+    private final List<? extends IXmlWriter> writers;
+
+    /**
+     * Constructor.
+     * @param writers the writers to pass the operations to.
+     */
+    public XmlWriterMultiplexer(final List<? extends IXmlWriter> writers) {
+        this.writers = writers;
+    }
+
+    @Override
+    public IXmlWriter startDocument() throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.startDocument();
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter openElement(final CharSequence elementName) throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.openElement(elementName);
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter attribute(final CharSequence name, final CharSequence value) throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.attribute(name, value);
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter content(final CharSequence content) throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.content(content);
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter closeElement() throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.closeElement();
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter closeDocument() throws IOException {
+        for (IXmlWriter writer : writers) {
+            writer.closeDocument();
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws Exception {
+        Exception first = null;
+        for (IXmlWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (Exception e) {
+                if (first == null) {
+                    first = e;
+                } else {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+}
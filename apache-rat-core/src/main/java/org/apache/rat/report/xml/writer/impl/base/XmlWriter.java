@@ -34,6 +34,11 @@ import org.apache.rat.report.xml.writer.OperationNotAllowedException;
  * Lightweight {@link IXmlWriter} implementation.
  * </p>
  * <p>
+ * Output is collected in an internal buffer and escaped in bulk runs. By default the buffer is passed to the
+ * underlying writer after each operation and the writer is flushed as each element is closed. A batched writer
+ * only passes the buffer on when it is full and flushes the underlying writer once the document is closed.
+ * </p>
+ * <p>
  * Requires a wrapper to be used safely in a multithreaded environment.
  * </p>
  * <p>
@@ -403,7 +408,13 @@ public final class XmlWriter implements IXmlWriter {
 
     }
 
+    /** The size of the internal buffer. */
+    static final int BUFFER_SIZE = 8192;
+
     private final Writer writer;
+    private final boolean batched;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
     private final ArrayDeque<CharSequence> elementNames;
     private final Set<CharSequence> currentAttributes = new HashSet<>();
 
@@ -416,7 +427,18 @@ public final class XmlWriter implements IXmlWriter {
      * @param writer the writer to write to.
      */
     public XmlWriter(final Writer writer) {
+        this(writer, false);
+    }
+
+    /**
+     * Constructs an XmlWriter with the specified writer for output.
+     * @param writer the writer to write to.
+     * @param batched if {@code true} output is only passed to the writer in chunks and the writer is only flushed
+     * by {@link #closeDocument()}.
+     */
+    public XmlWriter(final Writer writer, final boolean batched) {
         this.writer = writer;
+        this.batched = batched;
         this.elementNames = new ArrayDeque<>();
     }
 
@@ -436,8 +458,9 @@ public final class XmlWriter implements IXmlWriter {
         if (prologWritten) {
             throw new OperationNotAllowedException("Only one prolog allowed");
         }
-        writer.write("<?xml version='1.0'?>");
+        append("<?xml version='1.0'?>");
         prologWritten = true;
+        endOperation();
         return this;
     }
 
@@ -460,13 +483,14 @@ public final class XmlWriter implements IXmlWriter {
         }
         elementsWritten = true;
         if (inElement) {
-            writer.write('>');
+            append('>');
         }
-        writer.write('<');
+        append('<');
         rawWrite(elementName);
         inElement = true;
         elementNames.push(elementName);
         currentAttributes.clear();
+        endOperation();
         return this;
     }
 
@@ -500,13 +524,14 @@ public final class XmlWriter implements IXmlWriter {
         if (currentAttributes.contains(name)) {
             throw new InvalidXmlException("Each attribute can only be written once");
         }
-        writer.write(' ');
+        append(' ');
         rawWrite(name);
-        writer.write('=');
-        writer.write('\'');
+        append('=');
+        append('\'');
         writeAttributeContent(value);
-        writer.write('\'');
+        append('\'');
         currentAttributes.add(name);
+        endOperation();
         return this;
     }
 
@@ -532,10 +557,11 @@ public final class XmlWriter implements IXmlWriter {
             throw new OperationNotAllowedException("An element must be opened before content can be written.");
         }
         if (inElement) {
-            writer.write('>');
+            append('>');
         }
         writeBodyContent(content);
         inElement = false;
+        endOperation();
         return this;
     }
 
@@ -545,24 +571,34 @@ public final class XmlWriter implements IXmlWriter {
 
     private void writeEscaped(final CharSequence content, boolean isAttributeContent) throws IOException {
         final int length = content.length();
+        // characters that need no escaping are copied in runs.
+        int start = 0;
         for (int i = 0; i < length; i++) {
-            char character = content.charAt(i);
-            if (character == '&') {
-                writer.write("&amp;");
-            } else if (character == '<') {
-                writer.write("&lt;");
-            } else if (character == '>') {
-                writer.write("&gt;");
-            } else if (isAttributeContent && character == '\'') {
-                writer.write("&apos;");
-            } else if (isAttributeContent && character == '\"') {
-                writer.write("&quot;");
-            } else if (isOutOfRange(character)) {
-                writer.write('?');
-            } else {
-                writer.write(character);
+            final String replacement = escape(content.charAt(i), isAttributeContent);
+            if (replacement != null) {
+                append(content, start, i);
+                append(replacement);
+                start = i + 1;
             }
         }
+        append(content, start, length);
+    }
+
+    private String escape(final char character, boolean isAttributeContent) {
+        if (character == '&') {
+            return "&amp;";
+        } else if (character == '<') {
+            return "&lt;";
+        } else if (character == '>') {
+            return "&gt;";
+        } else if (isAttributeContent && character == '\'') {
+            return "&apos;";
+        } else if (isAttributeContent && character == '\"') {
+            return "&quot;";
+        } else if (isOutOfRange(character)) {
+            return "?";
+        }
+        return null;
     }
 
     private boolean isOutOfRange(final char character) {
@@ -586,16 +622,17 @@ public final class XmlWriter implements IXmlWriter {
         }
         final CharSequence elementName = elementNames.pop();
         if (inElement) {
-            writer.write('/');
-            writer.write('>');
+            append("/>");
         } else {
-            writer.write('<');
-            writer.write('/');
+            append("</");
             rawWrite(elementName);
-            writer.write('>');
+            append('>');
         }
-        writer.flush();
         inElement = false;
+        if (!batched) {
+            drain();
+            writer.flush();
+        }
         return this;
     }
 
@@ -616,14 +653,63 @@ public final class XmlWriter implements IXmlWriter {
         while (!elementNames.isEmpty()) {
             closeElement();
         }
+        drain();
         writer.flush();
         return this;
     }
 
     private void rawWrite(final CharSequence sequence) throws IOException {
-        for (int i = 0; i < sequence.length(); i++) {
-            final char charAt = sequence.charAt(i);
-            writer.write(charAt);
+        append(sequence, 0, sequence.length());
+    }
+
+    private void append(final char character) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = character;
+    }
+
+    private void append(final String text) throws IOException {
+        append(text, 0, text.length());
+    }
+
+    private void append(final CharSequence sequence, final int start, final int end) throws IOException {
+        int from = start;
+        while (from < end) {
+            if (position == buffer.length) {
+                drain();
+            }
+            final int to = Math.min(end, from + buffer.length - position);
+            if (sequence instanceof String) {
+                ((String) sequence).getChars(from, to, buffer, position);
+                position += to - from;
+            } else {
+                for (int i = from; i < to; i++) {
+                    buffer[position++] = sequence.charAt(i);
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Passes the buffered output to the underlying writer.
+     * @throws IOException on error.
+     */
+    private void drain() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Completes an operation.  Unless the writer is batched the output is passed to the underlying writer.
+     * @throws IOException on error.
+     */
+    private void endOperation() throws IOException {
+        if (!batched) {
+            drain();
         }
     }
 
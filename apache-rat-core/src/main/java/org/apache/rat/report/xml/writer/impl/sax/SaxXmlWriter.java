@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.report.xml.writer.impl.sax;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+import org.apache.rat.report.xml.writer.IXmlWriter;
+import org.apache.rat.report.xml.writer.InvalidXmlException;
+import org.apache.rat.report.xml.writer.OperationNotAllowedException;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * <p>
+ * {@link IXmlWriter} implementation that sends the document as SAX events to a {@link ContentHandler}, for
+ * example the handler of a stylesheet transformation. The document is never serialized to text.
+ * </p>
+ * <p>
+ * As in the text based writer, characters that are not allowed in XML are replaced by {@code ?}.
+ * </p>
+ * <p>
+ * Requires a wrapper to be used safely in a multithreaded environment.
+ * </p>
+ */
+public final class SaxXmlWriter implements IXmlWriter {
+
+    private static final String NO_NAMESPACE = "";
+
+    private final ContentHandler handler;
+    private final ArrayDeque<String> elementNames = new ArrayDeque<>();
+    private final AttributesImpl attributes = new AttributesImpl();
+    /** The element that has been opened but not yet passed to the handler. */
+    private String pendingElement = null;
+
+    private boolean documentStarted = false;
+    private boolean documentEnded = false;
+
+    /**
+     * Constructs a SaxXmlWriter with the specified handler for output.
+     * @param handler the handler to send the document to.
+     */
+    public SaxXmlWriter(final ContentHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Starts the document. Calling this method is optional, the document is started when the first element is
+     * opened.
+     *
+     * @return this object
+     * @throws OperationNotAllowedException if called after the document has been started.
+     */
+    @Override
+    public IXmlWriter startDocument() throws IOException {
+        if (documentStarted) {
+            throw new OperationNotAllowedException("Document already started");
+        }
+        try {
+            handler.startDocument();
+        } catch (SAXException e) {
+            throw new IOException(e);
+        }
+        documentStarted = true;
+        return this;
+    }
+
+    @Override
+    public IXmlWriter openElement(final CharSequence elementName) throws IOException {
+        if (documentStarted && elementNames.isEmpty() && pendingElement == null) {
+            throw new OperationNotAllowedException("Root element already closed. Cannot open new element.");
+        }
+        if (!documentStarted) {
+            startDocument();
+        }
+        startPendingElement();
+        pendingElement = elementName.toString();
+        return this;
+    }
+
+    @Override
+    public IXmlWriter attribute(final CharSequence name, final CharSequence value) throws IOException {
+        if (pendingElement == null) {
+            throw new OperationNotAllowedException("Attributes can only be written directly after an element is opened.");
+        }
+        String attributeName = name.toString();
+        if (attributes.getIndex(attributeName) >= 0) {
+            throw new InvalidXmlException("Each attribute can only be written once");
+        }
+        attributes.addAttribute(NO_NAMESPACE, attributeName, attributeName, "CDATA", replaceInvalid(value));
+        return this;
+    }
+
+    @Override
+    public IXmlWriter content(final CharSequence content) throws IOException {
+        if (elementNames.isEmpty() && pendingElement == null) {
+            throw new OperationNotAllowedException("An element must be opened before content can be written.");
+        }
+        startPendingElement();
+        char[] characters = replaceInvalid(content).toCharArray();
+        try {
+            handler.characters(characters, 0, characters.length);
+        } catch (SAXException e) {
+            throw new IOException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public IXmlWriter closeElement() throws IOException {
+        if (elementNames.isEmpty() && pendingElement == null) {
+            throw new OperationNotAllowedException("Close called before an element has been opened.");
+        }
+        startPendingElement();
+        String elementName = elementNames.pop();
+        try {
+            handler.endElement(NO_NAMESPACE, elementName, elementName);
+        } catch (SAXException e) {
+            throw new IOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Closes all pending elements and ends the document. No exception is raised when called upon a document that
+     * has already been closed.
+     *
+     * @return this object
+     * @throws OperationNotAllowedException if called before any call to {@link #openElement}
+     */
+    @Override
+    public IXmlWriter closeDocument() throws IOException {
+        if (!documentStarted) {
+            throw new OperationNotAllowedException("Close called before an element has been opened.");
+        }
+        while (!elementNames.isEmpty() || pendingElement != null) {
+            closeElement();
+        }
+        if (!documentEnded) {
+            documentEnded = true;
+            try {
+                handler.endDocument();
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closeDocument();
+    }
+
+    /**
+     * Passes the opened element and its attributes to the handler.
+     * @throws IOException on error.
+     */
+    private void startPendingElement() throws IOException {
+        if (pendingElement != null) {
+            try {
+                handler.startElement(NO_NAMESPACE, pendingElement, pendingElement, attributes);
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+            elementNames.push(pendingElement);
+            pendingElement = null;
+            attributes.clear();
+        }
+    }
+
+    /**
+     * Replaces the characters that are not allowed in XML.
+     * @param text the text to check.
+     * @return the text with each character that is not allowed replaced by {@code ?}.
+     */
+    private static String replaceInvalid(final CharSequence text) {
+        StringBuilder result = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c == 0x9 || c == 0xA || c == 0xD || (c >= 0x20 && c < 0xD7FF)
+                    || (c >= 0xE000 && c < 0xFFFD);
+            if (!allowed) {
+                if (result == null) {
+                    result = new StringBuilder(text);
+                }
+                result.setCharAt(i, '?');
+            }
+        }
+        return result == null ? text.toString() : result.toString();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * The archive and compression formats recognised by the {@link ArchiveWalker}.  Formats are detected from the
+ * signature at the start of the data.
+ */
+enum ArchiveFormat {
+    /** gzip compressed data. */
+    GZIP(0, 0x1f, 0x8b),
+    /** bzip2 compressed data. */
+    BZIP2(0, 'B', 'Z', 'h'),
+    /** xz compressed data. */
+    XZ(0, 0xfd, '7', 'z', 'X', 'Z', 0x00),
+    /** Zstandard compressed data. */
+    ZSTD(0, 0x28, 0xb5, 0x2f, 0xfd),
+    /** A zip archive. */
+    ZIP(0, 'P', 'K', 0x03, 0x04),
+    /** An empty zip archive. */
+    EMPTY_ZIP(0, 'P', 'K', 0x05, 0x06),
+    /** A 7z archive. */
+    SEVEN_Z(0, '7', 'z', 0xbc, 0xaf, 0x27, 0x1c),
+    /** A POSIX or GNU tar archive. */
+    TAR(257, 'u', 's', 't', 'a', 'r'),
+    /** Data without a known signature. */
+    UNKNOWN(0);
+
+    /** The number of bytes needed to detect any of the formats. */
+    static final int SIGNATURE_LENGTH = 512;
+
+    private final int offset;
+    private final byte[] signature;
+
+    ArchiveFormat(int offset, int... signature) {
+        this.offset = offset;
+        this.signature = new byte[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            this.signature[i] = (byte) signature[i];
+        }
+    }
+
+    /**
+     * @return {@code true} if this is a compression format.
+     */
+    boolean isCompressed() {
+        return this == GZIP || this == BZIP2 || this == XZ || this == ZSTD;
+    }
+
+    /**
+     * Determines if the decoder for this format is available.  The xz, 7z and Zstandard decoders depend on
+     * optional libraries.
+     * @return {@code true} if the data can be decoded.
+     */
+    boolean isAvailable() {
+        switch (this) {
+        case XZ:
+        case SEVEN_Z:
+            return XZUtils.isXZCompressionAvailable();
+        case ZSTD:
+            return ZstdUtils.isZstdCompressionAvailable();
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * @return the library that provides the decoder for this format, or {@code null} if the decoder is always
+     * available.
+     */
+    String getDecoderLibrary() {
+        switch (this) {
+        case XZ:
+        case SEVEN_Z:
+            return "org.tukaani:xz";
+        case ZSTD:
+            return "com.github.luben:zstd-jni";
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Wraps a stream of data in this format in a decompressing stream.
+     * @param in the compressed data.
+     * @return the decompressed data.
+     * @throws IOException on error.
+     */
+    InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GzipCompressorInputStream(in);
+        case BZIP2:
+            return new BZip2CompressorInputStream(in);
+        case XZ:
+            return new XZCompressorInputStream(in);
+        case ZSTD:
+            return new ZstdCompressorInputStream(in);
+        default:
+            throw new IllegalStateException(this + " is not a compression format");
+        }
+    }
+
+    private boolean matches(byte[] data, int length) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (data[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Detects the format of a stream.  The stream is reset to the position it had when the method was called.
+     * @param in a stream that supports mark.
+     * @return the format of the stream, {@link #UNKNOWN} if it is not recognised.
+     * @throws IOException on error.
+     */
+    static ArchiveFormat detect(InputStream in) throws IOException {
+        byte[] data = new byte[SIGNATURE_LENGTH];
+        in.mark(SIGNATURE_LENGTH);
+        int length;
+        try {
+            length = IOUtils.read(in, data);
+        } finally {
+            in.reset();
+        }
+        for (ArchiveFormat format : values()) {
+            if (format != UNKNOWN && format.matches(data, length)) {
+                return format;
+            }
+        }
+        return UNKNOWN;
+    }
+}
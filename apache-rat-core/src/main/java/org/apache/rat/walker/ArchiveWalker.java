@@ -16,32 +16,83 @@
  * specific language governing permissions and limitations      *
  * under the License.                                           *
  */
-
 package org.apache.rat.walker;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.apache.rat.api.Document;
 import org.apache.rat.api.RatException;
 import org.apache.rat.document.impl.ArchiveEntryDocument;
+import org.apache.rat.document.impl.DocumentImplUtils;
+import org.apache.rat.document.impl.guesser.ArchiveGuesser;
 import org.apache.rat.report.IReportable;
 import org.apache.rat.report.RatReport;
 
 /**
- * Walks various kinds of archives files
+ * Walks various kinds of archives files.
+ * <p>
+ * Entries are filtered before any of their data is read.  Only a bounded prefix of each reported entry is read
+ * from the archive stream, the rest of the entry is skipped.
+ * </p>
+ * <p>
+ * When a depth limit is set entries that are archives themselves are reported and then walked as they are read
+ * from the enclosing stream.  Their entries are named with composite paths such as {@code lib/x.jar!/Foo.java}.
+ * Memory use grows with the depth, not with the size of the archives.
+ * </p>
+ * <p>
+ * Zip archives on disk are read through their central directory.  When more than one thread is used the entries
+ * are decompressed in parallel and still reported in archive order.
+ * </p>
+ * <p>
+ * The xz, 7z and Zstandard formats need optional decoder libraries.  An archive in one of these formats fails the
+ * walk with a {@link RatException} naming the missing library rather than being skipped.
+ * </p>
  */
 public class ArchiveWalker extends Walker implements IReportable {
 
+    /**
+     * The default number of bytes read from each entry. This is enough for binary detection and for the license
+     * texts of the default configuration.
+     */
+    public static final int DEFAULT_PREFIX_LIMIT = 64 * 1024;
+
+    /** The separator between the name of an archive and the name of an entry within it. */
+    public static final String NESTED_SEPARATOR = "!/";
+
+    /**
+     * The number of zip entries per thread that may be read ahead of the entry being reported.
+     */
+    private static final int ENTRIES_PER_THREAD = 16;
+
+    private final int prefixLimit;
+    private final int depthLimit;
+    private final int threads;
+
     /**
      * Constructs a walker.
      * @param file not null
@@ -50,9 +101,63 @@ public class ArchiveWalker extends Walker implements IReportable {
      * @throws FileNotFoundException in case of I/O errors. 
      */
     public ArchiveWalker(File file, final FilenameFilter filter) throws FileNotFoundException {
+        this(file, filter, DEFAULT_PREFIX_LIMIT);
+    }
+
+    /**
+     * Constructs a walker.
+     * @param file not null
+     * @param filter filters input files (optional),
+     * or null when no filtering should be performed
+     * @param prefixLimit the maximum number of bytes to read from each entry.
+     * @throws FileNotFoundException in case of I/O errors.
+     */
+    public ArchiveWalker(File file, final FilenameFilter filter, final int prefixLimit)
+            throws FileNotFoundException {
+        this(file, filter, prefixLimit, 0);
+    }
+
+    /**
+     * Constructs a walker.
+     * @param file not null
+     * @param filter filters input files (optional),
+     * or null when no filtering should be performed
+     * @param prefixLimit the maximum number of bytes to read from each entry.
+     * @param depthLimit the number of levels of nested archives to descend into, 0 to only walk this archive.
+     * @throws FileNotFoundException in case of I/O errors.
+     */
+    public ArchiveWalker(File file, final FilenameFilter filter, final int prefixLimit, final int depthLimit)
+            throws FileNotFoundException {
+        this(file, filter, prefixLimit, depthLimit, 1);
+    }
+
+    /**
+     * Constructs a walker.
+     * @param file not null
+     * @param filter filters input files (optional),
+     * or null when no filtering should be performed
+     * @param prefixLimit the maximum number of bytes to read from each entry.
+     * @param depthLimit the number of levels of nested archives to descend into, 0 to only walk this archive.
+     * @param threads the number of threads to read the entries of zip archives with.
+     * @throws FileNotFoundException in case of I/O errors.
+     */
+    public ArchiveWalker(File file, final FilenameFilter filter, final int prefixLimit, final int depthLimit,
+            final int threads) throws FileNotFoundException {
         super(file, filter);
+        if (prefixLimit < 1) {
+            throw new IllegalArgumentException("Prefix limit must be at least 1");
+        }
+        if (depthLimit < 0) {
+            throw new IllegalArgumentException("Depth limit may not be negative");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1");
+        }
+        this.prefixLimit = prefixLimit;
+        this.depthLimit = depthLimit;
+        this.threads = threads;
     }
-    
+
     /**
      * Run a report over all files and directories in this GZIPWalker,
      * ignoring any files/directories set to be ignored.
@@ -61,59 +166,248 @@ public class ArchiveWalker extends Walker implements IReportable {
      * 
      */
     public void run(final RatReport report) throws RatException {
+        run(report, null);
+    }
 
-        try {
-            ArchiveInputStream input;
+    /**
+     * Runs a report over the entries of this archive, naming each entry after the archive.
+     * @param report the report to run.
+     * @param archiveName the name of this archive, entries are reported as
+     * {@code archiveName!/entry}. If {@code null} entries are reported by their own name.
+     * @throws RatException on error.
+     */
+    public void run(final RatReport report, final String archiveName) throws RatException {
+        String namePrefix = archiveName == null ? "" : archiveName + NESTED_SEPARATOR;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            ArchiveFormat format = ArchiveFormat.detect(in);
+            if (format == ArchiveFormat.SEVEN_Z) {
+                // 7z archives can not be streamed, they are read with random access.
+                checkAvailable(format, file.getPath());
+                walkSevenZ(file, report, namePrefix);
+            } else if (format == ArchiveFormat.ZIP) {
+                walkZipFile(report, namePrefix);
+            } else {
+                walk(in, format, namePrefix, 0, report);
+            }
+        } catch (IOException e) {
+            throw new RatException(e);
+        }
+    }
 
-            /* I am really sad that classes aren't first-class objects in
-               Java :'( */
+    /**
+     * Walks the entries of an archive stream.
+     * @param in the archive data, a stream that supports mark.
+     * @param detected the format detected at the start of the stream.
+     * @param namePrefix the prefix for the names of the entries.
+     * @param depth the number of archives this one is nested in.
+     * @param report the report to run.
+     * @throws IOException on error.
+     * @throws RatException on error.
+     */
+    private void walk(final InputStream in, final ArchiveFormat detected, final String namePrefix, final int depth,
+            final RatReport report) throws IOException, RatException {
+        checkAvailable(detected, namePrefix.isEmpty() ? file.getPath()
+                : namePrefix.substring(0, namePrefix.length() - NESTED_SEPARATOR.length()));
+        if (detected == ArchiveFormat.SEVEN_Z) {
+            // 7z archives can not be streamed, a nested one is copied to a file to be read with random access.
+            File copy = Files.createTempFile("rat", ".7z").toFile();
             try {
-                input = new TarArchiveInputStream(new GzipCompressorInputStream(new FileInputStream(file)));
-            } catch (IOException e) {
-                try {
-                    input = new TarArchiveInputStream(new BZip2CompressorInputStream(new FileInputStream(file)));
-                } catch (IOException e2) {
-                    input = new ZipArchiveInputStream(new FileInputStream(file));
-                }
+                Files.copy(in, copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                walkSevenZ(copy, report, namePrefix);
+            } finally {
+                Files.deleteIfExists(copy.toPath());
             }
+            return;
+        }
+        ArchiveFormat format = detected;
+        InputStream data = in;
+        if (format.isCompressed()) {
+            data = new BufferedInputStream(format.decompress(in));
+            // compressed archives that are not zip archives are assumed to be tar archives.
+            format = ArchiveFormat.detect(data) == ArchiveFormat.ZIP ? ArchiveFormat.ZIP : ArchiveFormat.TAR;
+        }
+        ArchiveInputStream input = format == ArchiveFormat.TAR ? new TarArchiveInputStream(data)
+                : new ZipArchiveInputStream(data);
 
-            ArchiveEntry entry = input.getNextEntry();
-            while (entry != null) {
+        // the archive stream skips whatever is left of an entry when the next one is requested.
+        ArchiveEntry entry = input.getNextEntry();
+        while (entry != null) {
+            if (!entry.isDirectory()) {
                 File f = new File(entry.getName());
-                byte[] contents = new byte[(int) entry.getSize()];
-                int offset = 0;
-                int length = contents.length;
-
-                while (offset < entry.getSize()) {
-                    int actualRead = input.read(contents, offset, length);
-                    length -= actualRead;
-                    offset += actualRead;
+                if (isNotIgnored(f)) {
+                    String entryName = namePrefix + DocumentImplUtils.toName(f);
+                    if (depth < depthLimit && ArchiveGuesser.isArchive(entryName)) {
+                        InputStream nested = new BufferedInputStream(CloseShieldInputStream.wrap(input));
+                        nested.mark(prefixLimit);
+                        report(report, readPrefix(nested, entry), entryName);
+                        nested.reset();
+                        walk(nested, ArchiveFormat.detect(nested), entryName + NESTED_SEPARATOR, depth + 1,
+                                report);
+                    } else {
+                        report(report, readPrefix(input, entry), entryName);
+                    }
                 }
+            }
+            entry = input.getNextEntry();
+        }
+    }
+
+    /**
+     * Checks that the decoder for the format of an archive is on the class path.
+     * @param format the format of the archive.
+     * @param archiveName the name of the archive.
+     * @throws RatException if the decoder is not available.
+     */
+    private static void checkAvailable(final ArchiveFormat format, final String archiveName) throws RatException {
+        if (!format.isAvailable()) {
+            throw new RatException(String.format("Cannot read %s, the %s decoder library %s is not on the class path",
+                    archiveName, format, format.getDecoderLibrary()));
+        }
+    }
 
-                if (!entry.isDirectory() && isNotIgnored(f)) {
-                    report(report, contents, f);
+    /**
+     * Runs the report over the entries of a zip archive in the order of its central directory.
+     * @param report the report to run.
+     * @param namePrefix the prefix for the names of the entries.
+     * @throws IOException on error.
+     * @throws RatException on error.
+     */
+    private void walkZipFile(final RatReport report, final String namePrefix) throws IOException, RatException {
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        Deque<Future<Document>> pending = new ArrayDeque<>();
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<ZipArchiveEntry> entries = zip.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                File f = new File(entry.getName());
+                if (!isNotIgnored(f)) {
+                    continue;
+                }
+                String entryName = namePrefix + DocumentImplUtils.toName(f);
+                if (depthLimit > 0 && ArchiveGuesser.isArchive(entryName)) {
+                    // nested archives are streamed on this thread, after the entries before them.
+                    drain(report, pending, 0);
+                    try (InputStream nested = new BufferedInputStream(zip.getInputStream(entry))) {
+                        nested.mark(prefixLimit);
+                        report(report, readPrefix(nested, entry), entryName);
+                        nested.reset();
+                        walk(nested, ArchiveFormat.detect(nested), entryName + NESTED_SEPARATOR, 1, report);
+                    }
+                } else if (pool == null) {
+                    report(report, readPrefix(zip, entry), entryName);
+                } else {
+                    pending.add(pool.submit(() -> new ArchiveEntryDocument(entryName, readPrefix(zip, entry))));
+                    drain(report, pending, threads * ENTRIES_PER_THREAD);
                 }
+            }
+            drain(report, pending, 0);
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
 
-                entry = input.getNextEntry();
+    /**
+     * Reports the documents that have been read until no more than the specified number are pending.
+     * @param report the report to run.
+     * @param pending the documents being read, in archive order.
+     * @param limit the number of documents that may remain pending.
+     * @throws IOException if a document could not be read.
+     * @throws RatException on error.
+     */
+    private void drain(final RatReport report, final Deque<Future<Document>> pending, final int limit)
+            throws IOException, RatException {
+        while (pending.size() > limit) {
+            try {
+                report.report(pending.remove().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RatException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new RatException(e.getCause());
             }
+        }
+    }
 
-            input.close();
-        } catch (IOException e) {
-            throw new RatException(e);
+    /**
+     * Reads the start of a zip entry.
+     * @param zip the zip file.
+     * @param entry the entry to read.
+     * @return at most {@code prefixLimit} bytes from the start of the entry.
+     * @throws IOException on error.
+     */
+    private byte[] readPrefix(final ZipFile zip, final ZipArchiveEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return readPrefix(in, entry);
+        }
+    }
+
+    /**
+     * Runs the report over the entries of a 7z archive.  Nested archives in 7z archives are not walked.
+     * @param archive the 7z archive.
+     * @param report the report to run.
+     * @param namePrefix the prefix for the names of the entries.
+     * @throws IOException on error.
+     * @throws RatException on error.
+     */
+    private void walkSevenZ(final File archive, final RatReport report, final String namePrefix)
+            throws IOException, RatException {
+        try (SevenZFile sevenZ = new SevenZFile(archive)) {
+            SevenZArchiveEntry entry = sevenZ.getNextEntry();
+            while (entry != null) {
+                if (!entry.isDirectory()) {
+                    File f = new File(entry.getName());
+                    if (isNotIgnored(f)) {
+                        long size = entry.getSize();
+                        byte[] buffer = new byte[size < prefixLimit ? (int) size : prefixLimit];
+                        int read = 0;
+                        while (read < buffer.length) {
+                            int count = sevenZ.read(buffer, read, buffer.length - read);
+                            if (count < 0) {
+                                break;
+                            }
+                            read += count;
+                        }
+                        report(report, read == buffer.length ? buffer : Arrays.copyOf(buffer, read),
+                                namePrefix + DocumentImplUtils.toName(f));
+                    }
+                }
+                entry = sevenZ.getNextEntry();
+            }
         }
     }
 
     /**
-     * Report on the given file.
+     * Reads the start of the current entry.
+     * @param input the stream positioned at the start of the entry data.
+     * @param entry the current entry.
+     * @return at most {@code prefixLimit} bytes from the start of the entry.
+     * @throws IOException on error.
+     */
+    private byte[] readPrefix(final InputStream input, final ArchiveEntry entry) throws IOException {
+        long size = entry.getSize();
+        byte[] buffer = new byte[size >= 0 && size < prefixLimit ? (int) size : prefixLimit];
+        int read = IOUtils.read(input, buffer);
+        return read == buffer.length ? buffer : Arrays.copyOf(buffer, read);
+    }
+
+    /**
+     * Report on the given entry.
      * 
      * @param report the report to process the file with
-     * @param file the file to be reported on
+     * @param contents the start of the entry.
+     * @param entryName the name of the entry.
      * @throws RatException
      */
-    private void report(final RatReport report, byte[] contents, File file) throws RatException {
-
-        Document document = new ArchiveEntryDocument(file, contents);
+    private void report(final RatReport report, byte[] contents, String entryName) throws RatException {
+        Document document = new ArchiveEntryDocument(entryName, contents);
         report.report(document);
-
     }
 }
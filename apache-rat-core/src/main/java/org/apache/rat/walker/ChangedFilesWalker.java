@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.impl.FileDocument;
+import org.apache.rat.report.RatReport;
+
+/**
+ * Reports only the files of a git working tree that changed since the merge base with a reference, plus the new
+ * untracked files that are not ignored.  The directory is not walked, the file set comes from the local
+ * repository through the {@code git} executable, which reads the on-disk {@code .git} data and does not use the
+ * network.  Deleted files are not reported.
+ */
+public class ChangedFilesWalker extends Walker {
+    private final String ref;
+
+    /**
+     * Constructor.
+     * @param file the directory in a git working tree, only changes below it are reported.
+     * @param filter filters input files (optional), or null when no filtering should be performed.
+     * @param ref the reference to compare with, such as {@code origin/main}.
+     */
+    public ChangedFilesWalker(final File file, final FilenameFilter filter, final String ref) {
+        super(file, filter);
+        this.ref = ref;
+    }
+
+    /**
+     * Lists the files changed since the merge base of a reference and {@code HEAD}, including uncommitted
+     * changes, and the untracked files that are not ignored.
+     * @param directory the directory in a git working tree, only changes below it are listed.
+     * @param ref the reference to compare with.
+     * @return the existing files, relative to the directory with {@code /} as the separator, sorted.
+     * @throws IOException if git fails or can not be run.
+     */
+    public static SortedSet<String> changedFiles(final File directory, final String ref) throws IOException {
+        final String mergeBase = git(directory, "merge-base", ref, "HEAD").trim();
+        final SortedSet<String> result = new TreeSet<>();
+        split(git(directory, "diff", "--name-only", "-z", "--relative", "--diff-filter=d", "--no-renames",
+                mergeBase, "--"), result);
+        split(git(directory, "ls-files", "-z", "--others", "--exclude-standard"), result);
+        return result;
+    }
+
+    private static void split(final String output, final SortedSet<String> result) {
+        for (String path : output.split("\0")) {
+            if (!path.isEmpty()) {
+                result.add(path);
+            }
+        }
+    }
+
+    private static String git(final File directory, final String... args) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        final Process process = new ProcessBuilder(command).directory(directory).start();
+        process.getOutputStream().close();
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final Thread drain = new Thread(() -> {
+            try (InputStream err = process.getErrorStream()) {
+                IOUtils.copy(err, errors);
+            } catch (IOException e) {
+                // the exit code reports the failure
+            }
+        });
+        drain.start();
+        final String output;
+        try (InputStream in = process.getInputStream()) {
+            output = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        try {
+            drain.join();
+            final int exit = process.waitFor();
+            if (exit != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed with exit code " + exit + ": "
+                        + new String(errors.toByteArray(), StandardCharsets.UTF_8).trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return output;
+    }
+
+    /**
+     * Reports the changed files that are not ignored.
+     * @param report the report to process the files with.
+     * @throws RatException if the changes can not be listed.
+     */
+    @Override
+    public void run(final RatReport report) throws RatException {
+        final SortedSet<String> paths;
+        try {
+            paths = changedFiles(file, ref);
+        } catch (IOException e) {
+            throw new RatException("Can not list the files changed since " + ref + " in " + file, e);
+        }
+        for (String path : paths) {
+            final File changed = new File(file, path.replace('/', File.separatorChar));
+            if (changed.isFile() && isNotIgnored(path)) {
+                report.report(new FileDocument(changed));
+            }
+        }
+    }
+}
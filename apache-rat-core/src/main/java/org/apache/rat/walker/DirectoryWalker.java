@@ -27,16 +27,31 @@ import org.apache.rat.report.RatReport;
 
 import java.io.File;
 import java.io.FilenameFilter;
-import java.util.Arrays;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
- * Walks directories.
+ * Walks directories.  Each directory is read with a {@link DirectoryStream} and the attributes of each entry are
+ * read once and passed on with the documents.
  */
 public class DirectoryWalker extends Walker implements IReportable {
 
     protected static final FileNameComparator COMPARATOR = new FileNameComparator();
 
+    /**
+     * Sorts the entries of a directory in the order of {@link #COMPARATOR}.
+     */
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(entry -> entry.name,
+            FileNameComparator::compareNames);
+
     public DirectoryWalker(File file) {
         this(file, (FilenameFilter) null);
     }
@@ -60,6 +75,23 @@ public class DirectoryWalker extends Walker implements IReportable {
         return false;
     }
 
+    /**
+     * A directory entry with the attributes read when the directory was listed.
+     */
+    private static final class Entry {
+        private final String name;
+        private final BasicFileAttributes attributes;
+
+        private Entry(final String name, final BasicFileAttributes attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+
+        private boolean isDirectory() {
+            return attributes != null && attributes.isDirectory();
+        }
+    }
+
     /**
      * Process a directory, restricted directories will be ignored.
      *
@@ -85,50 +117,51 @@ public class DirectoryWalker extends Walker implements IReportable {
 
     /**
      * Process a directory, ignoring any files/directories set to be ignored.
+     * The directory is streamed and the attributes of each entry are read once.
+     * Only the entries that are not ignored are kept, sorted by name.
      *
      * @param report the report to use in processing
-     * @param file   the run the report against
+     * @param directory the directory to run the report against
      * @throws RatException
      */
-    private void process(final RatReport report, final File file) throws RatException {
-        final File[] files = file.listFiles();
-        if (files != null) {
-            Arrays.sort(files, COMPARATOR);
-            // breadth first traversal
-            processNonDirectories(report, files);
-            processDirectories(report, files);
+    private void process(final RatReport report, final File directory) throws RatException {
+        final List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath())) {
+            for (final Path path : stream) {
+                final String name = path.getFileName().toString();
+                if (isNotIgnored(directory, name)) {
+                    entries.add(new Entry(name, readAttributes(path)));
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            // the directory can not be listed, as with File.listFiles() returning null.
+            return;
         }
-    }
-
-    /**
-     * Process all directories in a set of file objects, ignoring any directories set to be ignored.
-     *
-     * @param report the report to use in processing
-     * @param files  the files to process (only directories will be processed)
-     * @throws RatException
-     */
-    private void processDirectories(final RatReport report, final File[] files) throws RatException {
-        for (final File file : files) {
-            if (isNotIgnored(file) && file.isDirectory()) {
-                processDirectory(report, file);
+        entries.sort(ENTRY_ORDER);
+        // breadth first traversal
+        for (final Entry entry : entries) {
+            if (!entry.isDirectory()) {
+                report(report, new File(directory, entry.name), entry.attributes);
+            }
+        }
+        for (final Entry entry : entries) {
+            if (entry.isDirectory()) {
+                processDirectory(report, new File(directory, entry.name));
             }
         }
     }
 
     /**
-     * Process all files in a set of file objects, ignoring any files set to be ignored.
-     *
-     * @param report the report to use in processing
-     * @param files  the files to process (only files will be processed)
-     * @throws RatException
+     * Reads the attributes of a path, following symbolic links.
+     * @param path the path.
+     * @return the attributes or null if they can not be read, for example for a broken link.
      */
-    private void processNonDirectories(final RatReport report, final File[] files) throws RatException {
-        for (final File file : files) {
-            if (isNotIgnored(file) && !file.isDirectory()) {
-                report(report, file);
-            }
+    private static BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
         }
-
     }
 
     /**
@@ -136,11 +169,12 @@ public class DirectoryWalker extends Walker implements IReportable {
      *
      * @param report the report to process the file with
      * @param file   the file to be reported on
+     * @param attributes the attributes of the file or null if they are not known.
      * @throws RatException
      */
-    private void report(final RatReport report, File file) throws RatException {
+    private void report(final RatReport report, File file, BasicFileAttributes attributes) throws RatException {
 
-        Document document = new FileDocument(file);
+        Document document = new FileDocument(file, attributes);
         report.report(document);
 
     }
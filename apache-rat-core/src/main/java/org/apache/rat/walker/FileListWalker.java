@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.function.IOSupplier;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.impl.FileDocument;
+import org.apache.rat.report.RatReport;
+
+/**
+ * Reports the files named in a list, such as the output of {@code git ls-files} or a manifest, instead of
+ * walking a directory.  The list is read as a stream, one path at a time, so its length does not affect the
+ * memory used.  Paths are separated by line ends or by NUL characters and relative paths are resolved against
+ * the base directory after {@code .} and {@code ..} segments are resolved.  Absolute paths within the base
+ * directory are filtered as the relative path to them.  Paths that do not name a file and
+ * files that are excluded are skipped with a warning.
+ */
+public class FileListWalker extends Walker {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final IOSupplier<InputStream> list;
+    private final char separator;
+    private final Consumer<String> warnings;
+
+    /**
+     * Constructor that skips listed files silently.
+     * @param file the directory relative paths are resolved against.
+     * @param filter filters input files (optional), or null when no filtering should be performed.
+     * @param list supplies the stream to read the UTF-8 encoded list from, it is closed once read.
+     * @param nulSeparated {@code true} if the paths are separated by NUL characters rather than line ends.
+     */
+    public FileListWalker(final File file, final FilenameFilter filter, final IOSupplier<InputStream> list,
+            final boolean nulSeparated) {
+        this(file, filter, list, nulSeparated, message -> {
+        });
+    }
+
+    /**
+     * Constructor.
+     * @param file the directory relative paths are resolved against.
+     * @param filter filters input files (optional), or null when no filtering should be performed.
+     * @param list supplies the stream to read the UTF-8 encoded list from, it is closed once read.
+     * @param nulSeparated {@code true} if the paths are separated by NUL characters rather than line ends.
+     * @param warnings receives a message for each listed path that is skipped.
+     */
+    public FileListWalker(final File file, final FilenameFilter filter, final IOSupplier<InputStream> list,
+            final boolean nulSeparated, final Consumer<String> warnings) {
+        super(file, filter);
+        this.list = list;
+        this.separator = nulSeparated ? '\0' : '\n';
+        this.warnings = warnings;
+    }
+
+    /**
+     * Reports the listed files that are not ignored.
+     * @param report the report to process the files with.
+     * @throws RatException if the list can not be read.
+     */
+    @Override
+    public void run(final RatReport report) throws RatException {
+        final StringBuilder path = new StringBuilder();
+        final char[] buffer = new char[BUFFER_SIZE];
+        try (Reader reader = new InputStreamReader(list.get(), StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == separator) {
+                        report(report, path);
+                        path.setLength(0);
+                    } else {
+                        path.append(buffer[i]);
+                    }
+                }
+            }
+            report(report, path);
+        } catch (IOException e) {
+            throw new RatException("Can not read the list of files", e);
+        }
+    }
+
+    private void report(final RatReport report, final StringBuilder entry) throws RatException {
+        if (separator == '\n' && entry.length() > 0 && entry.charAt(entry.length() - 1) == '\r') {
+            entry.setLength(entry.length() - 1);
+        }
+        if (entry.length() == 0) {
+            return;
+        }
+        final String path = entry.toString();
+        final File listed = new File(path);
+        final String relative = listed.isAbsolute() ? relativize(listed)
+                : normalize(path.replace(File.separatorChar, '/'));
+        final File resolved;
+        if (relative != null) {
+            resolved = new File(file, relative);
+        } else {
+            resolved = (listed.isAbsolute() ? listed : new File(file, path)).toPath().normalize().toFile();
+        }
+        if (!resolved.isFile()) {
+            warnings.accept("Skipping " + path + ": not a file");
+        } else if (relative != null ? isNotIgnored(relative) : isNotIgnored(resolved)) {
+            report.report(new FileDocument(resolved));
+        } else {
+            warnings.accept("Skipping " + path + ": excluded");
+        }
+    }
+
+    /**
+     * Gets the path of an absolute file relative to the base directory, so that it is filtered like a relative path.
+     * @param absolute the absolute file.
+     * @return the normalized relative path with {@code /} as the separator, or null if the file is not in the base
+     * directory.
+     */
+    private String relativize(final File absolute) {
+        final Path base = file.getAbsoluteFile().toPath().normalize();
+        final Path normalized = absolute.toPath().normalize();
+        if (!normalized.startsWith(base)) {
+            return null;
+        }
+        return base.relativize(normalized).toString().replace(File.separatorChar, '/');
+    }
+}
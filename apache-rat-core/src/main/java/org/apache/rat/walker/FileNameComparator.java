@@ -35,10 +35,19 @@ class FileNameComparator implements Comparator<File> {
             } else {
                 final String firstName = firstFile.getName();
                 final String secondName = secondFile.getName();
-                result = firstName.compareTo(secondName);
+                result = compareNames(firstName, secondName);
             }
         }
         return result;
     }
 
+    /**
+     * Compares the names of two files in the order of this comparator.
+     * @param firstName the name of the first file.
+     * @param secondName the name of the second file.
+     * @return the result of the comparison.
+     */
+    static int compareNames(String firstName, String secondName) {
+        return firstName.compareTo(secondName);
+    }
 }
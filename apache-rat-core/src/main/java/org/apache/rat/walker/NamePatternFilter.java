@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.rat.analysis.AhoCorasickAutomaton;
+
+/**
+ * Filters out the files whose name matches one of a set of patterns.  Each pattern is matched as an exact name,
+ * as a wildcard with {@code *} and {@code ?} and as a regular expression, as the command line always did with
+ * one commons-io filter of each kind per pattern.
+ * <p>
+ * The patterns are compiled into one structure when the filter is created.  Exact names are looked up in a
+ * set, wildcards of the form {@code prefix*} and {@code *suffix} are merged into tries, and the other wildcards
+ * and regular expressions are indexed by a literal that every match must contain.  A name is then searched once
+ * for all those literals and only the patterns whose literal was found are evaluated.  The few patterns without
+ * a usable literal are evaluated for every name.
+ * </p>
+ */
+public class NamePatternFilter implements FilenameFilter {
+    private static final String REGEX_META = "\\^$.|?*+()[]{}";
+
+    private final Set<String> names = new HashSet<>();
+    private final Trie prefixes = new Trie();
+    private final Trie suffixes = new Trie();
+    private final AhoCorasickAutomaton literals;
+    /** the patterns to evaluate when the literal with the same index is found. */
+    private final List<List<Predicate<String>>> candidates = new ArrayList<>();
+    private final List<Predicate<String>> unindexed = new ArrayList<>();
+    private boolean matchAll;
+
+    /**
+     * Constructor.
+     * @param patterns the patterns.
+     * @param errors receives the message for each pattern that is not a valid regular expression, such
+     * patterns are still matched as names and wildcards.
+     */
+    public NamePatternFilter(final Collection<String> patterns, final Consumer<String> errors) {
+        final Map<String, List<Predicate<String>>> indexed = new LinkedHashMap<>();
+        for (String pattern : patterns) {
+            names.add(pattern);
+            addWildcard(pattern, indexed);
+            try {
+                addRegex(pattern, indexed);
+            } catch (PatternSyntaxException e) {
+                errors.accept("Will not match given exclusion '" + pattern + "' as a regular expression due to " + e);
+            }
+        }
+        candidates.addAll(indexed.values());
+        literals = new AhoCorasickAutomaton(new ArrayList<>(indexed.keySet()));
+    }
+
+    private void addWildcard(final String pattern, final Map<String, List<Predicate<String>>> indexed) {
+        if (pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0) {
+            // same as the name
+            return;
+        }
+        final int star = pattern.indexOf('*');
+        final boolean single = pattern.indexOf('?') < 0 && star == pattern.lastIndexOf('*');
+        if (single && pattern.length() == 1) {
+            matchAll = true;
+        } else if (single && star == 0) {
+            suffixes.add(new StringBuilder(pattern.substring(1)).reverse());
+        } else if (single && star == pattern.length() - 1) {
+            prefixes.add(pattern.substring(0, star));
+        } else {
+            index(wildcardLiteral(pattern), name -> FilenameUtils.wildcardMatch(name, pattern, IOCase.SENSITIVE),
+                    indexed);
+        }
+    }
+
+    private void addRegex(final String pattern, final Map<String, List<Predicate<String>>> indexed) {
+        final Pattern regex = Pattern.compile(pattern);
+        if (!containsAny(pattern, REGEX_META)) {
+            // same as the name
+            return;
+        }
+        index(regexLiteral(pattern), name -> regex.matcher(name).matches(), indexed);
+    }
+
+    private void index(final String literal, final Predicate<String> predicate,
+            final Map<String, List<Predicate<String>>> indexed) {
+        if (literal.isEmpty()) {
+            unindexed.add(predicate);
+        } else {
+            indexed.computeIfAbsent(literal, k -> new ArrayList<>()).add(predicate);
+        }
+    }
+
+    private static boolean containsAny(final String text, final String chars) {
+        for (int i = 0; i < text.length(); i++) {
+            if (chars.indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the longest run of characters between the wildcards of a pattern.
+     * @param pattern the wildcard pattern.
+     * @return the literal, empty if there is none.
+     */
+    private static String wildcardLiteral(final String pattern) {
+        String longest = "";
+        for (String run : pattern.split("[*?]")) {
+            if (run.length() > longest.length()) {
+                longest = run;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Finds the longest run of characters that every match of a regular expression contains.  Only expressions
+     * without groups, alternatives, character classes, counted repetitions and escaped letters are analysed.
+     * @param pattern the regular expression.
+     * @return the literal, empty if there is none or the expression is not analysed.
+     */
+    private static String regexLiteral(final String pattern) {
+        if (containsAny(pattern, "|([{")) {
+            return "";
+        }
+        String longest = "";
+        final StringBuilder run = new StringBuilder();
+        for (int i = 0; i <= pattern.length(); i++) {
+            final char c = i < pattern.length() ? pattern.charAt(i) : '.';
+            if (c == '\\' && i + 1 < pattern.length() && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                run.append(pattern.charAt(++i));
+                continue;
+            }
+            if (REGEX_META.indexOf(c) < 0) {
+                run.append(c);
+                continue;
+            }
+            if (c == '\\') {
+                // a character class such as \d or an escape such as \x41 or \Q
+                return "";
+            }
+            if ((c == '?' || c == '*') && run.length() > 0) {
+                // the quantifier makes the last character optional
+                run.setLength(run.length() - 1);
+            }
+            if (run.length() > longest.length()) {
+                longest = run.toString();
+            }
+            run.setLength(0);
+        }
+        return longest;
+    }
+
+    /**
+     * Determines if a name matches one of the patterns.
+     * @param name the file name.
+     * @return {@code true} if the name is excluded.
+     */
+    public boolean matches(final String name) {
+        if (matchAll || names.contains(name) || prefixes.matchesPrefix(name, false)
+                || suffixes.matchesPrefix(name, true)) {
+            return true;
+        }
+        if (literals.size() > 0) {
+            final BitSet found = new BitSet(literals.size());
+            literals.search(name, found);
+            for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+                for (Predicate<String> predicate : candidates.get(i)) {
+                    if (predicate.test(name)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        for (Predicate<String> predicate : unindexed) {
+            if (predicate.test(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accepts the files whose name does not match any of the patterns.
+     * @param dir the directory the file is in.
+     * @param name the name of the file.
+     * @return {@code true} if the file is not excluded.
+     */
+    @Override
+    public boolean accept(final File dir, final String name) {
+        return !matches(name);
+    }
+
+    /**
+     * A character trie that finds whether any of its entries is a prefix of a text.
+     */
+    private static final class Trie {
+        private final Map<Character, Trie> children = new HashMap<>();
+        private boolean terminal;
+
+        private void add(final CharSequence entry) {
+            Trie node = this;
+            for (int i = 0; i < entry.length(); i++) {
+                node = node.children.computeIfAbsent(entry.charAt(i), k -> new Trie());
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * @param text the text to test.
+         * @param reverse {@code true} to read the text from its end.
+         * @return {@code true} if an entry is a prefix of the text, or a suffix when reading in reverse.
+         */
+        private boolean matchesPrefix(final String text, final boolean reverse) {
+            Trie node = this;
+            for (int i = 0; i < text.length(); i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                node = node.children.get(text.charAt(reverse ? text.length() - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+}
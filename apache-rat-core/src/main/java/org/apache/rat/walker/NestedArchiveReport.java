@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+
+import org.apache.rat.api.Document;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.impl.guesser.ArchiveGuesser;
+import org.apache.rat.report.RatReport;
+
+/**
+ * Reports each document and then descends into the documents that are archive files, so that archives found by
+ * any walker have their entries reported too.  Entries are named {@code archive!/entry}.
+ */
+public class NestedArchiveReport implements RatReport {
+    private final RatReport report;
+    private final FilenameFilter filter;
+    private final int depthLimit;
+
+    /**
+     * Constructor.
+     * @param report the report to pass the documents and the archive entries to.
+     * @param filter filters archive entries (optional), or null when no filtering should be performed.
+     * @param depthLimit the number of levels of archives to descend into, at least 1.
+     */
+    public NestedArchiveReport(final RatReport report, final FilenameFilter filter, final int depthLimit) {
+        if (depthLimit < 1) {
+            throw new IllegalArgumentException("Depth limit must be at least 1");
+        }
+        this.report = report;
+        this.filter = filter;
+        this.depthLimit = depthLimit;
+    }
+
+    @Override
+    public void startReport() throws RatException {
+        report.startReport();
+    }
+
+    @Override
+    public void report(final Document document) throws RatException {
+        report.report(document);
+        File file = document.getFile();
+        if (file != null && ArchiveGuesser.isArchive(document.getName())) {
+            try {
+                new ArchiveWalker(file, filter, ArchiveWalker.DEFAULT_PREFIX_LIMIT, depthLimit - 1).run(report,
+                        document.getName());
+            } catch (IOException e) {
+                throw new RatException(e);
+            }
+        }
+    }
+
+    @Override
+    public void endReport() throws RatException {
+        report.endReport();
+    }
+}
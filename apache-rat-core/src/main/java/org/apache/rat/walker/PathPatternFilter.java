@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.walker;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+
+/**
+ * Filters out the paths that match a set of Ant style patterns, such as {@code target/**},
+ * {@code **&#47;.venv/**} or {@code src/**&#47;*.txt}.  Paths are relative to a base directory and use
+ * {@code /} as the separator.  Patterns of the form {@code %regex[...]} are matched as regular expressions
+ * against the whole relative path and {@code %ant[...]} is accepted as in Plexus.
+ * <p>
+ * As in the Plexus {@code DirectoryScanner}, each path is matched on its own: a pattern such as {@code target}
+ * or {@code **&#47;*.java} that matches a directory does not exclude the files in it.  Only a pattern that
+ * provably covers everything below a directory, one ending in {@code /**} or {@code /**&#47;*}, excludes the
+ * directory with its contents, so walkers that apply this filter never list such subtrees.  The patterns are
+ * analysed when the filter is created: literal paths and names excluded at any depth are looked up in sets,
+ * only the remaining patterns are matched one by one.
+ * </p>
+ */
+public class PathPatternFilter implements FilenameFilter {
+    private static final String REGEX_PREFIX = "%regex[";
+    private static final String ANT_PREFIX = "%ant[";
+    private static final String ANY = "**";
+
+    private final String base;
+    /** literal paths, such as {@code a/b.txt}. */
+    private final Set<String> paths = new HashSet<>();
+    /** literal directories excluded with their contents, such as {@code a/b} from {@code a/b/**}. */
+    private final Set<String> trees = new HashSet<>();
+    /** names excluded at any depth, such as {@code .venv} from {@code **&#47;.venv}. */
+    private final Set<String> names = new HashSet<>();
+    /** directory names excluded with their contents at any depth, such as {@code .venv} from {@code **&#47;.venv/**}. */
+    private final Set<String> treeNames = new HashSet<>();
+    /** the remaining patterns split into their segments, those ending in {@code **} cover subtrees. */
+    private final List<String[]> wildcards = new ArrayList<>();
+    private final List<Pattern> regexes = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param base the directory the patterns are relative to, or null if the paths passed to the filter are
+     * already relative.
+     * @param patterns the patterns, blank lines and lines starting with {@code #} are ignored.
+     */
+    public PathPatternFilter(final File base, final Collection<String> patterns) {
+        this.base = base == null ? null : base.getPath();
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    /**
+     * Normalizes an Ant style pattern: separators become {@code /}, leading {@code ./} and {@code /} are
+     * removed, a trailing {@code /} or {@code /**&#47;*} becomes {@code /**}.  Regular expressions are
+     * returned unchanged.
+     * @param pattern the pattern.
+     * @return the normalized pattern or null if the pattern is blank or a comment.
+     */
+    public static String normalize(final String pattern) {
+        String result = pattern.trim();
+        if (result.isEmpty() || result.startsWith("#")) {
+            return null;
+        }
+        if (result.startsWith(REGEX_PREFIX) && result.endsWith("]")) {
+            return result;
+        }
+        if (result.startsWith(ANT_PREFIX) && result.endsWith("]")) {
+            result = result.substring(ANT_PREFIX.length(), result.length() - 1).trim();
+        }
+        result = result.replace('\\', '/');
+        while (result.startsWith("./")) {
+            result = result.substring(2);
+        }
+        while (result.startsWith("/")) {
+            result = result.substring(1);
+        }
+        if (result.endsWith("/")) {
+            result += ANY;
+        } else if (result.endsWith("/**/*")) {
+            result = result.substring(0, result.length() - 2);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    private void add(final String pattern) {
+        final String normalized = normalize(pattern);
+        if (normalized == null) {
+            return;
+        }
+        if (normalized.startsWith(REGEX_PREFIX)) {
+            regexes.add(Pattern.compile(normalized.substring(REGEX_PREFIX.length(), normalized.length() - 1)));
+            return;
+        }
+        final String[] tokens = normalized.split("/+");
+        final int last = tokens.length - 1;
+        final boolean subtree = last > 0 && ANY.equals(tokens[last]);
+        final int literalStart = tokens.length > 1 && ANY.equals(tokens[0]) ? 1 : 0;
+        final int literalEnd = subtree ? last : tokens.length;
+        for (int i = literalStart; i < literalEnd; i++) {
+            if (isWildcard(tokens[i])) {
+                wildcards.add(tokens);
+                return;
+            }
+        }
+        if (literalEnd <= literalStart) {
+            // "**" or "**/**" matches everything
+            wildcards.add(tokens);
+        } else if (literalStart == 0) {
+            (subtree ? trees : paths).add(String.join("/", Arrays.copyOfRange(tokens, 0, literalEnd)));
+        } else if (literalEnd - literalStart == 1) {
+            (subtree ? treeNames : names).add(tokens[1]);
+        } else {
+            wildcards.add(tokens);
+        }
+    }
+
+    private static boolean isWildcard(final String token) {
+        return token.indexOf('*') >= 0 || token.indexOf('?') >= 0;
+    }
+
+    /**
+     * @return {@code true} if no patterns were added.
+     */
+    public boolean isEmpty() {
+        return paths.isEmpty() && trees.isEmpty() && names.isEmpty() && treeNames.isEmpty() && wildcards.isEmpty()
+                && regexes.isEmpty();
+    }
+
+    /**
+     * Determines if a path is excluded, either because it matches one of the patterns or because one of the
+     * directories it is in is excluded with its contents.  Checking the enclosing directories gives the same
+     * result for a path whether or not the walk pruned its parents.
+     * @param relativePath the path relative to the base directory, using {@code /} as the separator.
+     * @return {@code true} if the path is excluded.
+     */
+    public boolean matches(final String relativePath) {
+        final String path = relativePath.replace('\\', '/');
+        final String[] segments = path.split("/+");
+        if (isInTree(path, segments)) {
+            return true;
+        }
+        if (names.contains(segments[segments.length - 1]) || paths.contains(path)) {
+            return true;
+        }
+        for (String[] tokens : wildcards) {
+            if (matches(tokens, 0, segments, 0, segments.length)) {
+                return true;
+            }
+        }
+        for (Pattern regex : regexes) {
+            if (regex.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if a directory is excluded together with everything below it, so that it need not be listed.
+     * @param relativePath the path of the directory relative to the base directory, using {@code /} as the
+     * separator.
+     * @return {@code true} if the directory and its contents are excluded.
+     */
+    public boolean excludesTree(final String relativePath) {
+        final String path = relativePath.replace('\\', '/');
+        final String[] segments = path.split("/+");
+        if (isInTree(path, segments)) {
+            return true;
+        }
+        for (String[] tokens : wildcards) {
+            // "x/**" matching a directory matches everything below it too
+            if (ANY.equals(tokens[tokens.length - 1]) && matches(tokens, 0, segments, 0, segments.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if the path or one of the directories it is in is a literal directory excluded with its
+     * contents.
+     * @param path the path.
+     * @param segments the segments of the path.
+     * @return {@code true} if the path is in an excluded tree.
+     */
+    private boolean isInTree(final String path, final String[] segments) {
+        if (trees.isEmpty() && treeNames.isEmpty()) {
+            return false;
+        }
+        final StringBuilder prefix = new StringBuilder(path.length());
+        for (String segment : segments) {
+            if (prefix.length() > 0) {
+                prefix.append('/');
+            }
+            prefix.append(segment);
+            if (treeNames.contains(segment) || trees.contains(prefix.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(final String[] tokens, final int token, final String[] segments,
+            final int segment, final int length) {
+        if (token == tokens.length) {
+            return segment == length;
+        }
+        if (ANY.equals(tokens[token])) {
+            for (int i = segment; i <= length; i++) {
+                if (matches(tokens, token + 1, segments, i, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return segment < length
+                && FilenameUtils.wildcardMatch(segments[segment], tokens[token], IOCase.SENSITIVE)
+                && matches(tokens, token + 1, segments, segment + 1, length);
+    }
+
+    /**
+     * Returns the path of a file relative to the base directory.
+     * @param dir the directory the file is in.
+     * @param name the name of the file.
+     * @return the relative path using {@code /} as the separator.
+     */
+    private String relativePath(final File dir, final String name) {
+        String parent = dir == null ? "" : dir.getPath();
+        if (base != null) {
+            if (parent.equals(base)) {
+                parent = "";
+            } else if (parent.startsWith(base) && parent.charAt(base.length()) == File.separatorChar) {
+                parent = parent.substring(base.length() + 1);
+            }
+        }
+        return parent.isEmpty() ? name : parent.replace(File.separatorChar, '/') + "/" + name;
+    }
+
+    /**
+     * Accepts the files that are not excluded and the directories whose contents are not all excluded.  A
+     * directory that matches a pattern without the pattern covering its contents is accepted so that the files
+     * in it are tested on their own.
+     * @param dir the directory the file is in.
+     * @param name the name of the file.
+     * @return {@code true} if the file is not excluded.
+     */
+    @Override
+    public boolean accept(final File dir, final String name) {
+        final String path = relativePath(dir, name);
+        return !matches(path) || !excludesTree(path) && new File(dir, name).isDirectory();
+    }
+}
@@ -23,6 +23,8 @@ import org.apache.rat.report.IReportable;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.regex.Pattern;
 
 /**
@@ -54,13 +56,69 @@ public abstract class Walker implements IReportable {
     }
  
     protected final boolean isNotIgnored(final File file) {
-        boolean result = false;
-        if (filter != null) {
-            final String name = file.getName();
-            final File dir = file.getParentFile();
-            result = !filter.accept(dir, name);
+        return isNotIgnored(file.getParentFile(), file.getName());
+    }
+
+    /**
+     * Determines if a file is not ignored by the filter.
+     * @param dir the directory the file is in.
+     * @param name the name of the file.
+     * @return {@code true} if the file should be processed.
+     */
+    protected final boolean isNotIgnored(final File dir, final String name) {
+        return filter == null || filter.accept(dir, name);
+    }
+
+    /**
+     * Normalizes a relative path: empty and {@code .} segments are removed and {@code ..} segments remove the
+     * segment before them.
+     * @param relativePath the path, with {@code /} as the separator.
+     * @return the normalized path, empty for the walked file itself, or null if the path leads out of it.
+     */
+    protected static String normalize(final String relativePath) {
+        final Deque<String> segments = new ArrayDeque<>();
+        for (String segment : relativePath.split("/+")) {
+            if (segment.isEmpty() || ".".equals(segment)) {
+                continue;
+            }
+            if ("..".equals(segment)) {
+                if (segments.pollLast() == null) {
+                    return null;
+                }
+            } else {
+                segments.addLast(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    /**
+     * Applies the filter to a path and to each directory it is in, so that the same files are skipped as when
+     * the directories are walked.  The path is normalized first, a path that leads out of the walked file is
+     * filtered as a file of its own.
+     * @param relativePath the path relative to the walked file, with {@code /} as the separator.
+     * @return {@code true} if the file should be processed.
+     */
+    protected final boolean isNotIgnored(final String relativePath) {
+        final String normalized = normalize(relativePath);
+        if (normalized == null) {
+            return isNotIgnored(new File(file, relativePath).toPath().normalize().toFile());
+        }
+        if (normalized.isEmpty()) {
+            return true;
+        }
+        File dir = file;
+        final String[] segments = normalized.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (!isNotIgnored(dir, segments[i])) {
+                return false;
+            }
+            dir = new File(dir, segments[i]);
+            if (i < segments.length - 1 && isRestricted(dir)) {
+                return false;
+            }
         }
-        return !result;
+        return true;
     }
 
     public Walker(File file, final FilenameFilter filter) {
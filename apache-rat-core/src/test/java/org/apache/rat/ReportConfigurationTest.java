@@ -188,6 +188,24 @@ public class ReportConfigurationTest {
         assertEquals(filter, underTest.getInputFileFilter());
     }
 
+    @Test
+    public void threadsTest() {
+        assertEquals(1, underTest.getThreads());
+        underTest.setThreads(4);
+        assertEquals(4, underTest.getThreads());
+
+        underTest.setReportable(mock(IReportable.class));
+        underTest.addLicense(mockLicense("valid", "Validation testing license"));
+        underTest.setStyleReport(false);
+        underTest.setThreads(0);
+        try {
+            underTest.validate(s -> {});
+            fail("should have thrown ConfigurationException");
+        } catch (ConfigurationException e) {
+            assertEquals("Threads must be at least 1", e.getMessage());
+        }
+    }
+
     @Test
     public void licenseFamiliesTest() {
         assertTrue(underTest.getLicenseFamilies(LicenseFilter.all).isEmpty());
@@ -278,6 +296,17 @@ public class ReportConfigurationTest {
         assertEquals(" * Licensed to the Apache Software Foundation (ASF) under one   *", d.readLine());
     }
 
+    @Test
+    public void styleTest() {
+        assertNull(underTest.getStyle());
+        underTest.setStyle(ReportConfiguration.Style.PLAIN);
+        assertEquals(ReportConfiguration.Style.PLAIN, underTest.getStyle());
+        assertEquals(ReportConfiguration.Style.PLAIN.getStyleSheet(), underTest.getStyleSheet());
+        // a style sheet is applied with XSLT, even the style sheet of a built in style.
+        underTest.setStyleSheet(ReportConfiguration.Style.PLAIN.getStyleSheet());
+        assertNull(underTest.getStyle());
+    }
+
     @Test
     public void testFlags() {
         assertFalse(underTest.isAddingLicenses());
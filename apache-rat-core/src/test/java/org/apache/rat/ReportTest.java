@@ -18,11 +18,17 @@
  */
 package org.apache.rat;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.FilenameFilter;
 import java.util.Arrays;
 
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.apache.rat.test.utils.Resources;
 import org.junit.Test;
 
 public class ReportTest {
@@ -33,4 +39,35 @@ public class ReportTest {
         assertNotNull(filter);
     }
 
+    @Test
+    public void parseExclusionsPrunesPaths() {
+        final File base = new File("base");
+        final FilenameFilter filter = Report.parseExclusions(base, Arrays.asList("target/**", "**/.venv/**", "*.log"));
+        assertFalse(filter.accept(base, "target"));
+        assertFalse(filter.accept(new File(base, "a"), ".venv"));
+        assertFalse(filter.accept(base, "build.log"));
+        assertTrue(filter.accept(new File(base, "src"), "target"));
+        assertTrue(filter.accept(base, "pom.xml"));
+    }
+
+
+    @Test(expected = ParseException.class)
+    public void filesFromAndChangedSinceConflict() throws Exception {
+        new DefaultParser().parse(Report.buildOptions(),
+                new String[] {"--files-from", "list.txt", "--changed-since", "main", "."});
+    }
+
+    @Test(expected = ParseException.class)
+    public void changedSinceRequiresADirectory() throws Exception {
+        File archive = Resources.getResourceFile("/elements/dummy.jar");
+        Report.checkChangedSince(new DefaultParser().parse(Report.buildOptions(),
+                new String[] {"--changed-since", "main", archive.getPath()}));
+    }
+
+    @Test
+    public void changedSinceAcceptsADirectory() throws Exception {
+        File directory = Resources.getResourceFile("/elements/dummy.jar").getParentFile();
+        Report.checkChangedSince(new DefaultParser().parse(Report.buildOptions(),
+                new String[] {"--changed-since", "main", directory.getPath()}));
+    }
 }
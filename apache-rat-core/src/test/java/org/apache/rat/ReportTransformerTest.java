@@ -22,10 +22,18 @@ import org.apache.rat.test.utils.Resources;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamSource;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 public class ReportTransformerTest {
@@ -50,4 +58,19 @@ public class ReportTransformerTest {
         transformer.transform();
     }
 
+    @Test
+    public void testHandler() throws Exception {
+        StringWriter writer = new StringWriter();
+        try (InputStream style = new FileInputStream(
+                Resources.getMainResourceFile("/org/apache/rat/plain-rat.xsl"))) {
+            TransformerHandler handler = ReportTransformer.newHandler(writer, style);
+            TransformerFactory.newInstance().newTransformer()
+                    .transform(new StreamSource(new StringReader(SIMPLE_CONTENT)), new SAXResult(handler));
+        }
+        StringWriter expected = new StringWriter();
+        new ReportTransformer(expected,
+                new BufferedReader(new FileReader(Resources.getMainResourceFile("/org/apache/rat/plain-rat.xsl"))),
+                new StringReader(SIMPLE_CONTENT)).transform();
+        assertEquals(expected.toString(), writer.toString());
+    }
 }
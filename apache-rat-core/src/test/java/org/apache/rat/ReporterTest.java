@@ -19,17 +19,27 @@
 package org.apache.rat;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFactory;
 
+import org.apache.commons.io.function.IOSupplier;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.impl.FileDocument;
 import org.apache.rat.test.utils.Resources;
 import org.apache.rat.testhelpers.XmlUtils;
 import org.apache.rat.walker.DirectoryWalker;
@@ -76,6 +86,24 @@ public class ReporterTest {
         assertEquals(12, nodeList.getLength());
     }
 
+    private String xmlReport(int threads) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final String elementsPath = Resources.getResourceDirectory("elements/Source.java");
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyleReport(false);
+        configuration.setFrom(Defaults.builder().build());
+        configuration.setThreads(threads);
+        configuration.setReportable(new DirectoryWalker(new File(elementsPath)));
+        configuration.setOut(() -> out);
+        Reporter.report(configuration);
+        return out.toString("UTF-8").replaceFirst("timestamp='[^']*'", "timestamp=''");
+    }
+
+    @Test
+    public void parallelXmlReportTest() throws Exception {
+        assertEquals(xmlReport(1), xmlReport(4));
+    }
+
     private static final String NL = System.getProperty("line.separator");
     private static final String PARAGRAPH = "*****************************************************";
     private static final String HEADER = NL + PARAGRAPH + NL + //
@@ -127,6 +155,129 @@ public class ReporterTest {
         find("== File: src/test/resources/elements/sub/Empty.txt", document);
     }
 
+    private String styledReport(IOSupplier<InputStream> styleSheet) throws Exception {
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyleSheet(styleSheet);
+        return styledReport(configuration);
+    }
+
+    private String styledReport(ReportConfiguration.Style style) throws Exception {
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyle(style);
+        return styledReport(configuration);
+    }
+
+    private String styledReport(ReportConfiguration configuration) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final String elementsPath = Resources.getResourceDirectory("elements/Source.java");
+        configuration.setFrom(Defaults.builder().build());
+        configuration.setReportable(new DirectoryWalker(new File(elementsPath)));
+        configuration.setOut(() -> out);
+        Reporter.report(configuration);
+        return out.toString("UTF-8").replaceFirst("Generated at: .*", "Generated at: ");
+    }
+
+    @Test
+    public void nativePlainReportMatchesStyleSheet() throws Exception {
+        assertEquals(styledReport(ReportConfiguration.Style.PLAIN.getStyleSheet()),
+                styledReport(ReportConfiguration.Style.PLAIN));
+    }
+
+    @Test
+    public void nativeUnapprovedLicensesReportMatchesStyleSheet() throws Exception {
+        assertEquals(styledReport(ReportConfiguration.Style.UNAPPROVED_LICENSES.getStyleSheet()),
+                styledReport(ReportConfiguration.Style.UNAPPROVED_LICENSES));
+    }
+
+    @Test
+    public void additionalOutputsShareOneScan() throws Exception {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream unapproved = new ByteArrayOutputStream();
+        final String elementsPath = Resources.getResourceDirectory("elements/Source.java");
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyleReport(false);
+        configuration.setFrom(Defaults.builder().build());
+        configuration.setReportable(new DirectoryWalker(new File(elementsPath)));
+        configuration.setOut(() -> xml);
+        configuration.addOutput(() -> plain, ReportConfiguration.Style.PLAIN);
+        configuration.addOutput(() -> unapproved, ReportConfiguration.Style.UNAPPROVED_LICENSES);
+        Reporter.report(configuration);
+
+        assertEquals(xmlReport(1), xml.toString("UTF-8").replaceFirst("timestamp='[^']*'", "timestamp=''"));
+        assertEquals(styledReport(ReportConfiguration.Style.PLAIN),
+                plain.toString("UTF-8").replaceFirst("Generated at: .*", "Generated at: "));
+        assertEquals(styledReport(ReportConfiguration.Style.UNAPPROVED_LICENSES), unapproved.toString("UTF-8"));
+    }
+
+    @Test
+    public void everyOutputIsClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        final String elementsPath = Resources.getResourceDirectory("elements/Source.java");
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyleReport(false);
+        configuration.setFrom(Defaults.builder().build());
+        configuration.setReportable(new DirectoryWalker(new File(elementsPath)));
+        configuration.setOut(() -> new ByteArrayOutputStream());
+        configuration.addOutput(() -> new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new IllegalStateException("Cannot close");
+            }
+        }, ReportConfiguration.Style.PLAIN);
+        configuration.addOutput(() -> new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        }, ReportConfiguration.Style.PLAIN);
+        try {
+            Reporter.report(configuration);
+            fail("Should have thrown IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Cannot close", e.getMessage());
+        }
+        assertTrue("Output after the failed one was not closed", closed.get());
+    }
+
+    private static Set<Thread> reportThreads() {
+        Set<Thread> threads = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("rat-report".equals(thread.getName())) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    @Test
+    public void pipelineIsStoppedWhenTheWalkFails() throws Exception {
+        final File source = new File(Resources.getResourceDirectory("elements/Source.java"), "Source.java");
+        final Set<Thread> existing = reportThreads();
+        final Set<Thread> pipeline = new HashSet<>();
+        final ReportConfiguration configuration = new ReportConfiguration();
+        configuration.setStyleReport(false);
+        configuration.setFrom(Defaults.builder().build());
+        configuration.setThreads(4);
+        configuration.setReportable(report -> {
+            report.report(new FileDocument(source));
+            pipeline.addAll(reportThreads());
+            pipeline.removeAll(existing);
+            throw new RatException("Cannot walk");
+        });
+        configuration.setOut(() -> new ByteArrayOutputStream());
+        try {
+            Reporter.report(configuration);
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            assertEquals("Cannot walk", e.getCause().getMessage());
+        }
+        assertEquals(1, pipeline.size());
+        for (Thread thread : pipeline) {
+            assertFalse("The pipeline is still running", thread.isAlive());
+        }
+    }
+
     private void find(String pattern, String document) {
         assertTrue(String.format("Could not find '%s'", pattern),
                 Pattern.compile(pattern, Pattern.MULTILINE).matcher(document).find());
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public class AhoCorasickAutomatonTest {
+
+    private BitSet search(AhoCorasickAutomaton automaton, String text) {
+        BitSet found = new BitSet();
+        automaton.search(text, found);
+        return found;
+    }
+
+    private BitSet bits(int... indexes) {
+        BitSet result = new BitSet();
+        for (int idx : indexes) {
+            result.set(idx);
+        }
+        return result;
+    }
+
+    @Test
+    public void overlappingPatterns() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(Arrays.asList("he", "she", "his", "hers"));
+        assertEquals(4, automaton.size());
+        assertEquals(bits(0, 1, 3), search(automaton, "ushers"));
+        assertEquals(bits(2), search(automaton, "this"));
+        assertEquals(bits(), search(automaton, "nothing to see"));
+    }
+
+    @Test
+    public void failureTransitions() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(
+                Arrays.asList("Licensed to the Apache", "Apache License", "DO NOT EDIT"));
+        assertEquals(bits(1), search(automaton, " * Licensed under the Apache License, Version 2.0"));
+        assertEquals(bits(0), search(automaton, "Licensed to the Apache Software Foundation"));
+        assertEquals(bits(2), search(automaton, "// DO NOT DO NOT EDIT"));
+    }
+
+    @Test
+    public void noPatterns() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(Arrays.asList());
+        assertEquals(0, automaton.size());
+        assertEquals(bits(), search(automaton, "anything"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyPattern() {
+        new AhoCorasickAutomaton(Arrays.asList("one", ""));
+    }
+}
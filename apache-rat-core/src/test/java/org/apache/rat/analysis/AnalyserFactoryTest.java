@@ -19,18 +19,27 @@
 package org.apache.rat.analysis;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.StringWriter;
 import java.util.Arrays;
 
 import org.apache.rat.analysis.IHeaderMatcher.State;
+import org.apache.rat.api.Document;
 import org.apache.rat.document.IDocumentAnalyser;
 import org.apache.rat.document.impl.MonolithicFileDocument;
 import org.apache.rat.license.ILicense;
 import org.apache.rat.report.claim.impl.xml.SimpleXmlClaimReporter;
+import org.apache.rat.testhelpers.TestingLicense;
 import org.apache.rat.report.xml.writer.impl.base.XmlWriter;
 import org.apache.rat.test.utils.Resources;
 import org.junit.Before;
@@ -123,4 +132,39 @@ public class AnalyserFactoryTest {
         assertEquals("Open archive element",
                 "<resource name='src/test/resources/elements/dummy.jar'><type name='archive'/>", out.toString());
     }
+
+    @Test
+    public void standardTypeAnalyserOpensDocumentOnce() throws Exception {
+        final Document document = spy(new MonolithicFileDocument(Resources.getResourceFile("/elements/Text.txt")));
+        analyser.analyse(document);
+        reporter.report(document);
+        verify(document, times(1)).inputStream();
+        verify(document, never()).reader();
+        assertTrue(out.toString().endsWith("<type name='standard'/>"));
+    }
+
+    @Test
+    public void contentIsOnlyReadWhenNeeded() throws Exception {
+        assertTrue(analyser.readsContent(new MonolithicFileDocument(Resources.getResourceFile("/elements/Text.txt"))));
+        assertFalse(analyser.readsContent(new MonolithicFileDocument(Resources.getResourceFile("/elements/LICENSE"))));
+        assertFalse(analyser.readsContent(new MonolithicFileDocument(Resources.getResourceFile("/elements/Image.png"))));
+        assertFalse(analyser.readsContent(new MonolithicFileDocument(Resources.getResourceFile("/elements/dummy.jar"))));
+    }
+
+    @Test
+    public void fingerprintOfAnalyser() {
+        ILicense license = new TestingLicense();
+        String fingerprint = DefaultAnalyserFactory
+                .fingerprint(DefaultAnalyserFactory.createDefaultAnalyser(Arrays.asList(license)));
+        assertEquals(fingerprint, DefaultAnalyserFactory
+                .fingerprint(DefaultAnalyserFactory.createDefaultAnalyser(Arrays.asList(license))));
+        assertNotEquals(fingerprint, DefaultAnalyserFactory
+                .fingerprint(DefaultAnalyserFactory.createDefaultAnalyser(Arrays.asList(license), 10, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fingerprintOfOtherAnalyser() {
+        DefaultAnalyserFactory.fingerprint(document -> {
+        });
+    }
 }
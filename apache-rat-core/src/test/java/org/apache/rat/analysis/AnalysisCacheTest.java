@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.rat.api.Document;
+import org.apache.rat.api.MetaData;
+import org.apache.rat.document.IDocumentAnalyser;
+import org.apache.rat.document.impl.FileDocument;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AnalysisCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheFile;
+    private File source;
+    private int analysed;
+
+    private final IDocumentAnalyser analyser = document -> {
+        analysed++;
+        document.getMetaData().set(MetaData.RAT_DOCUMENT_CATEGORY_DATUM_STANDARD);
+        document.getMetaData().set(new MetaData.Datum(MetaData.RAT_URL_HEADER_SAMPLE, "line one\nline two"));
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        cacheFile = new File(folder.getRoot(), "target/rat.cache");
+        source = folder.newFile("Source.java");
+        Files.write(source.toPath(), "class Source {}".getBytes(StandardCharsets.UTF_8));
+        // the cache ignores files modified after the scan started.
+        assertTrue(source.setLastModified(System.currentTimeMillis() - 10000));
+    }
+
+    private Document run(String fingerprint) throws Exception {
+        AnalysisCache cache = new AnalysisCache(cacheFile, fingerprint, analyser);
+        Document document = new FileDocument(source);
+        cache.startReport();
+        cache.analyse(document);
+        cache.endReport();
+        return document;
+    }
+
+    @Test
+    public void unchangedFileIsReplayed() throws Exception {
+        run("one");
+        assertEquals(1, analysed);
+        assertTrue(cacheFile.exists());
+
+        Document document = run("one");
+        assertEquals(1, analysed);
+        assertEquals(MetaData.RAT_DOCUMENT_CATEGORY_VALUE_STANDARD,
+                document.getMetaData().value(MetaData.RAT_URL_DOCUMENT_CATEGORY));
+        assertEquals("line one\nline two", document.getMetaData().value(MetaData.RAT_URL_HEADER_SAMPLE));
+    }
+
+    @Test
+    public void changedFileIsAnalysed() throws Exception {
+        run("one");
+        Files.write(source.toPath(), "class Source { }".getBytes(StandardCharsets.UTF_8));
+        assertTrue(source.setLastModified(System.currentTimeMillis() - 5000));
+        run("one");
+        assertEquals(2, analysed);
+    }
+
+    @Test
+    public void changedConfigurationIsAnalysed() throws Exception {
+        run("one");
+        run("two");
+        assertEquals(2, analysed);
+        run("two");
+        assertEquals(2, analysed);
+    }
+
+    @Test
+    public void damagedCacheIsIgnored() throws Exception {
+        assertTrue(cacheFile.getParentFile().mkdirs());
+        Files.write(cacheFile.toPath(), new byte[] { 0, 0, 0, 1, 0, 0 });
+        run("one");
+        assertEquals(1, analysed);
+        run("one");
+        assertEquals(1, analysed);
+    }
+}
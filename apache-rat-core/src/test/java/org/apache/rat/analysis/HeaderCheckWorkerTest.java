@@ -19,15 +19,19 @@
 
 package org.apache.rat.analysis;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.StringReader;
+import java.util.Collections;
 
 import org.apache.rat.api.Document;
+import org.apache.rat.api.MetaData;
 import org.apache.rat.license.ILicense;
 import org.apache.rat.testhelpers.TestingLicense;
 import org.apache.rat.testhelpers.TestingLocation;
+import org.apache.rat.testhelpers.TestingMatcher;
 import org.junit.Test;
 
 public class HeaderCheckWorkerTest {
@@ -41,4 +45,58 @@ public class HeaderCheckWorkerTest {
         worker.read();
         assertTrue(worker.isFinished());
     }
+
+    private static final String TEXT = "one\ntwo\nthree\nfour\nfive\n";
+
+    @Test
+    public void scanLineLimit() throws Exception {
+        final Document subject = new TestingLocation("subject");
+        // the matcher throws an exception if more than 2 lines are presented.
+        ILicense license = new TestingLicense("lines", new TestingMatcher("lines", false, false));
+        HeaderCheckWorker worker = new HeaderCheckWorker(new StringReader(TEXT), 1, 2, HeaderCheckWorker.NO_SCAN_LIMIT,
+                license, subject);
+        worker.read();
+        assertEquals(UnknownLicense.INSTANCE.getLicenseFamily().getFamilyCategory(),
+                subject.getMetaData().value(MetaData.RAT_URL_LICENSE_FAMILY_CATEGORY));
+        assertEquals("one\n", subject.getMetaData().value(MetaData.RAT_URL_HEADER_SAMPLE));
+    }
+
+    @Test
+    public void scanLimitKeepsHeaderSample() throws Exception {
+        final Document subject = new TestingLocation("subject");
+        ILicense license = new TestingLicense("lines", new TestingMatcher("lines", false, false));
+        HeaderCheckWorker worker = new HeaderCheckWorker(new StringReader(TEXT),
+                HeaderCheckWorker.DEFAULT_NUMBER_OF_RETAINED_HEADER_LINES, 2, HeaderCheckWorker.NO_SCAN_LIMIT,
+                license, subject);
+        worker.read();
+        assertEquals(TEXT, subject.getMetaData().value(MetaData.RAT_URL_HEADER_SAMPLE));
+    }
+
+    @Test
+    public void scanCharLimit() throws Exception {
+        final Document subject = new TestingLocation("subject");
+        // "one\ntwo\n" is 8 characters.
+        ILicense license = new TestingLicense("chars", new TestingMatcher("chars", false, false));
+        HeaderCheckWorker worker = new HeaderCheckWorker(new StringReader(TEXT), 5, HeaderCheckWorker.NO_SCAN_LIMIT, 8,
+                license, subject);
+        worker.read();
+        assertTrue(worker.isFinished());
+        assertEquals(UnknownLicense.INSTANCE.getLicenseFamily().getFamilyCategory(),
+                subject.getMetaData().value(MetaData.RAT_URL_LICENSE_FAMILY_CATEGORY));
+    }
+
+    @Test
+    public void licenseScanLineLimit() throws Exception {
+        final Document subject = new TestingLocation("subject");
+        TestingMatcher matcher = new TestingMatcher("license", false, false, true);
+        matcher.finalState = IHeaderMatcher.State.f;
+        ILicense license = ILicense.builder().setLicenseFamilyCategory("limit").setLicenseFamilyName("Limited")
+                .setMatcher(matcher).setScanLineLimit(2).build();
+        // the license resolves to false after two lines so the match on the third line is never seen.
+        HeaderCheckWorker worker = new HeaderCheckWorker(new StringReader(TEXT),
+                new LicenseCollection(Collections.singletonList(license)), subject);
+        worker.read();
+        assertEquals(UnknownLicense.INSTANCE.getLicenseFamily().getFamilyCategory(),
+                subject.getMetaData().value(MetaData.RAT_URL_LICENSE_FAMILY_CATEGORY));
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.rat.analysis.IHeaderMatcher.State;
+import org.apache.rat.analysis.matchers.AndMatcher;
+import org.apache.rat.analysis.matchers.FullTextMatcher;
+import org.apache.rat.analysis.matchers.NotMatcher;
+import org.apache.rat.analysis.matchers.OrMatcher;
+import org.apache.rat.analysis.matchers.SimpleTextMatcher;
+import org.apache.rat.license.ILicense;
+import org.apache.rat.testhelpers.TestingLicense;
+import org.apache.rat.testhelpers.TestingMatcher;
+import org.junit.Test;
+
+public class MatchingEngineTest {
+
+    @Test
+    public void textMatchers() {
+        ILicense one = new TestingLicense("one", new AndMatcher(
+                Arrays.asList(new SimpleTextMatcher("hello"), new SimpleTextMatcher("world"))));
+        ILicense two = new TestingLicense("two", new OrMatcher(
+                Arrays.asList(new SimpleTextMatcher("goodbye"), new SimpleTextMatcher("world"))));
+        MatchingEngine.Evaluation engine = new MatchingEngine(Arrays.asList(one, two)).newEvaluation();
+
+        assertEquals(State.i, engine.matches("hello there"));
+        assertEquals(State.t, engine.matches("hello world"));
+        assertSame(one, engine.getMatchingLicense());
+
+        engine.reset();
+        assertNull(engine.getMatchingLicense());
+        assertEquals(State.t, engine.matches("goodbye"));
+        assertSame(two, engine.getMatchingLicense());
+
+        engine.reset();
+        assertEquals(State.i, engine.matches("nothing"));
+        assertEquals(State.f, engine.finalizeState());
+        assertNull(engine.getMatchingLicense());
+    }
+
+    @Test
+    public void sharedMatcherIsMatchedOncePerLine() {
+        TestingMatcher shared = new TestingMatcher("shared", false, true);
+        ILicense one = new TestingLicense("one", new AndMatcher(Arrays.asList(shared, new SimpleTextMatcher("one"))));
+        ILicense two = new TestingLicense("two", new AndMatcher(Arrays.asList(shared, new SimpleTextMatcher("two"))));
+        MatchingEngine.Evaluation engine = new MatchingEngine(Arrays.asList(one, two)).newEvaluation();
+
+        assertEquals(State.i, engine.matches("two"));
+        // the shared matcher would run out of results if it were called for each license.
+        assertEquals(State.t, engine.matches("second"));
+        assertSame(two, engine.getMatchingLicense());
+    }
+
+    @Test
+    public void scanLimitHoldsWhenMatchersAreShared() {
+        SimpleTextMatcher copyright = new SimpleTextMatcher("copyright");
+        ILicense limited = ILicense.builder().setLicenseFamilyCategory("limit").setLicenseFamilyName("Limited")
+                .setMatcher(new AndMatcher(Arrays.asList(copyright, new SimpleTextMatcher("licensed"))))
+                .setScanLineLimit(2).build();
+        ILicense other = new TestingLicense("other",
+                new AndMatcher(Arrays.asList(copyright, new SimpleTextMatcher("notice"))));
+        MatchingEngine.Evaluation engine = new MatchingEngine(Arrays.asList(limited, other)).newEvaluation();
+
+        assertEquals(State.i, engine.matches("licensed"));
+        assertEquals(State.i, engine.matches("nothing"));
+        // the limited license resolved to false, the other license still matches the shared matcher.
+        assertEquals(State.i, engine.matches("copyright"));
+        assertNull(engine.getMatchingLicense());
+        assertEquals(State.t, engine.matches("notice"));
+        assertSame(other, engine.getMatchingLicense());
+    }
+
+    @Test
+    public void notHorizon() {
+        ILicense license = new TestingLicense("not", new NotMatcher("not", new SimpleTextMatcher("generated"), 2, 0));
+        MatchingEngine.Evaluation engine = new MatchingEngine(Arrays.asList(license)).newEvaluation();
+
+        assertEquals(State.i, engine.matches("first"));
+        assertEquals(State.t, engine.matches("second"));
+
+        engine.reset();
+        assertEquals(State.f, engine.matches("generated"));
+    }
+
+    @Test
+    public void notHorizonHoldsWhenMatchersAreShared() {
+        SimpleTextMatcher generated = new SimpleTextMatcher("generated");
+        ILicense limited = new TestingLicense("limited", new AndMatcher(
+                Arrays.asList(new NotMatcher("not", generated, 2, 0), new SimpleTextMatcher("apache"))));
+        ILicense other = new TestingLicense("other", new AndMatcher(Arrays.asList(
+                new OrMatcher(Arrays.asList(generated, new SimpleTextMatcher("tool"))),
+                new SimpleTextMatcher("notice"))));
+        MatchingEngine.Evaluation engine = new MatchingEngine(Arrays.asList(limited, other)).newEvaluation();
+
+        assertEquals(State.i, engine.matches("first"));
+        assertEquals(State.i, engine.matches("second"));
+        // the not resolved to true at its horizon, the other license still matches the shared matcher.
+        assertEquals(State.i, engine.matches("generated"));
+        assertEquals(State.t, engine.matches("apache"));
+        assertSame(limited, engine.getMatchingLicense());
+    }
+
+    @Test
+    public void evaluationsAreIndependent() {
+        ILicense license = new TestingLicense("full", new FullTextMatcher("hello\nworld"));
+        MatchingEngine engine = new MatchingEngine(Arrays.asList(license));
+        assertTrue(engine.isThreadSafe());
+        MatchingEngine.Evaluation first = engine.newEvaluation();
+        MatchingEngine.Evaluation second = engine.newEvaluation();
+
+        assertEquals(State.i, first.matches("hello"));
+        assertEquals(State.i, second.matches("goodbye"));
+        assertEquals(State.t, first.matches("world"));
+        assertEquals(State.i, second.matches("world"));
+        assertSame(license, first.getMatchingLicense());
+        assertNull(second.getMatchingLicense());
+    }
+
+    @Test
+    public void uncompiledMatchers() {
+        MatchingEngine engine = new MatchingEngine(Arrays.asList(new TestingLicense("one", new TestingMatcher())));
+        assertFalse(engine.isThreadSafe());
+    }
+
+    @Test
+    public void subclassedMatchersAreNotCompiled() {
+        SimpleTextMatcher never = new SimpleTextMatcher("never", "hello") {
+            @Override
+            public boolean doMatch(String line) {
+                return false;
+            }
+        };
+        MatchingEngine engine = new MatchingEngine(Arrays.asList(new TestingLicense("one", never)));
+        assertFalse(engine.isThreadSafe());
+        MatchingEngine.Evaluation evaluation = engine.newEvaluation();
+        assertEquals(State.i, evaluation.matches("hello"));
+        assertEquals(State.f, evaluation.finalizeState());
+
+        MatchingEngine base = new MatchingEngine(
+                Arrays.asList(new TestingLicense("one", new SimpleTextMatcher("never", "hello"))));
+        assertNotEquals(base.fingerprint(), engine.fingerprint());
+    }
+}
@@ -120,7 +120,7 @@ abstract public class AbstractLicenseTest {
 
     }
 
-    private boolean processText(ILicense license, String text) throws IOException {
+    protected boolean processText(ILicense license, String text) throws IOException {
         try (BufferedReader in = new BufferedReader(new StringReader(text))) {
             String line;
             while (null != (line = in.readLine())) {
@@ -18,6 +18,14 @@
  */
 package org.apache.rat.analysis.license;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.rat.license.ILicense;
+import org.junit.Test;
+
 /**
  * Apache Software License detection tests.
  *
@@ -63,6 +71,28 @@ public class ApacheSoftwareLicenseTest extends AbstractLicenseTest {
         super(category, name, null, targets);
     }
 
+    private static String withLines(int count, String text) {
+        StringBuilder sb = new StringBuilder(targets[0][1]).append('\n');
+        for (int i = 1; i < count; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        return sb.append(text).append('\n').toString();
+    }
+
+    @Test
+    public void copyrightInHeaderIsNotAL() throws IOException {
+        ILicense license = extractCategory(category);
+        assertFalse(processText(license, withLines(17, "Copyright 2023 FooBar.")));
+        license.reset();
+    }
+
+    @Test
+    public void copyrightBelowHeaderIsAL() throws IOException {
+        ILicense license = extractCategory(category);
+        assertTrue(processText(license, withLines(30, "Copyright 2023 FooBar.")));
+        license.reset();
+    }
+
 //
 //    @Test(timeout = 2000) // may need to be adjusted if many more files are added
 //    public void goodFiles() throws Exception {
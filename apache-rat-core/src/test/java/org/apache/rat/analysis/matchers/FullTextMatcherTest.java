@@ -72,4 +72,29 @@ public class FullTextMatcherTest {
         target.reset();
         assertEquals( State.i, target.currentState());
     }
+
+    @Test
+    public void testMatchAcrossLines() {
+        FullTextMatcher target = new FullTextMatcher("abcabd abd");
+        assertEquals( State.i, target.matches("# A B C"));
+        assertEquals( State.i, target.matches("# A b c a"));
+        assertEquals( State.i, target.matches("# b d a"));
+        assertEquals( State.t, target.matches("# b d --"));
+    }
+
+    @Test
+    public void testAdvanceDoesNotChangeState() {
+        assertEquals(4, target.advance(0, "Hel-l"));
+        assertEquals(target.length(), target.advance(4, "o, World!"));
+        assertEquals( State.i, target.currentState());
+    }
+
+    @Test
+    public void testNormalizedAdvance() {
+        char[] buffer = new char[20];
+        int length = FullTextMatcher.normalize("* Hello, (W)orld!", buffer);
+        assertEquals("helloworld", new String(buffer, 0, length));
+        assertEquals(target.length(), target.advance(0, buffer, length));
+        assertEquals(5, target.advance(0, buffer, 5));
+    }
 }
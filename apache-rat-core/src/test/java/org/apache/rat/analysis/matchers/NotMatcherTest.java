@@ -60,4 +60,42 @@ public class NotMatcherTest {
         assertEquals(State.i, target.currentState());
 
     }
+
+    @Test
+    public void testLineHorizon() {
+        TestingMatcher one = new TestingMatcher("one", false, false, true);
+        NotMatcher target = new NotMatcher("Testing", one, 2, 0);
+        assertEquals(State.i, target.matches("hello"));
+        // the enclosed matcher is finalized after the second line.
+        assertEquals(State.t, target.matches("world"));
+        assertEquals(State.t, target.matches("match would be found here"));
+        assertEquals(State.t, target.finalizeState());
+        target.reset();
+        assertEquals(State.i, target.currentState());
+    }
+
+    @Test
+    public void testHorizonStateIsKept() {
+        SimpleTextMatcher shared = new SimpleTextMatcher("generated");
+        NotMatcher target = new NotMatcher("Testing", shared, 1, 0);
+        assertEquals(State.t, target.matches("hello"));
+        // another matcher that encloses the same matcher keeps matching it.
+        assertEquals(State.t, shared.matches("generated"));
+        assertEquals(State.t, target.currentState());
+        assertEquals(State.t, target.finalizeState());
+    }
+
+    @Test
+    public void testCharHorizon() {
+        TestingMatcher one = new TestingMatcher("one", false, true);
+        NotMatcher target = new NotMatcher("Testing", one, 0, 20);
+        assertEquals(State.i, target.matches("hello"));
+        assertEquals(State.f, target.matches("world"));
+        assertEquals(State.f, target.finalizeState());
+
+        one = new TestingMatcher("one", false, true);
+        target = new NotMatcher("Testing", one, 0, 5);
+        assertEquals(State.t, target.matches("hello"));
+        assertEquals(State.t, target.matches("world"));
+    }
 }
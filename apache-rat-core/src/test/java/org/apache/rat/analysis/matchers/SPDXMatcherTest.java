@@ -19,6 +19,7 @@
 package org.apache.rat.analysis.matchers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import org.apache.rat.analysis.IHeaderMatcher;
 import org.apache.rat.analysis.IHeaderMatcher.State;
@@ -72,4 +73,15 @@ public class SPDXMatcherTest {
         target.reset();
         assertEquals(State.i, target.currentState());
     }
+
+    @Test
+    public void testExtractId() {
+        assertEquals("Apache-2.0", SPDXMatcherFactory.extractId("// SPDX-License-Identifier: Apache-2.0"));
+        assertEquals("MIT", SPDXMatcherFactory.extractId(" * SPDX-License-Identifier:\tMIT */"));
+        assertEquals("MIT", SPDXMatcherFactory.extractId("SPDX-License-Identifier: hello SPDX-License-Identifier: MIT"));
+        assertEquals("hello", SPDXMatcherFactory.extractId("SPDX-License-Identifier: hello SPDX-License-Identifier:"));
+        assertNull(SPDXMatcherFactory.extractId("SPDX-License-Identifier:Apache-2.0"));
+        assertNull(SPDXMatcherFactory.extractId("SPDX-License-Identifier:  Apache-2.0"));
+        assertNull(SPDXMatcherFactory.extractId("Licensed under the Apache License"));
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.document.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.api.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrefetchedDocumentTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Document document(String content) throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new FileDocument(file);
+    }
+
+    private static String read(Document document) throws Exception {
+        try (InputStream in = document.inputStream()) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void readsContentThatFitsThePrefix() throws Exception {
+        Document file = document("0123456789");
+        Document prefetched = new PrefetchedDocument(file, 10);
+        Files.delete(file.getFile().toPath());
+        assertEquals("0123456789", read(prefetched));
+        assertEquals("0123456789", read(prefetched));
+    }
+
+    @Test
+    public void readsTheRestOfTheContent() throws Exception {
+        Document prefetched = new PrefetchedDocument(document("0123456789abcdef"), 10);
+        assertEquals("0123456789abcdef", read(prefetched));
+        try (Reader reader = prefetched.reader()) {
+            assertEquals("0123456789abcdef", IOUtils.toString(reader));
+        }
+    }
+
+    @Test
+    public void sharesTheDocumentDescription() throws Exception {
+        Document file = document("content");
+        Document prefetched = new PrefetchedDocument(file, PrefetchedDocument.DEFAULT_PREFETCH_LENGTH);
+        assertEquals(file.getName(), prefetched.getName());
+        assertSame(file.getMetaData(), prefetched.getMetaData());
+        assertSame(file.getFile(), prefetched.getFile());
+    }
+}
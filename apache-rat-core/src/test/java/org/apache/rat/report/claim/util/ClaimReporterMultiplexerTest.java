@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.claim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.analysis.AnalysisCache;
+import org.apache.rat.api.Document;
+import org.apache.rat.api.MetaData;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.IDocumentAnalyser;
+import org.apache.rat.document.RatDocumentAnalysisException;
+import org.apache.rat.document.impl.FileDocument;
+import org.apache.rat.report.AbstractReport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClaimReporterMultiplexerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Document> createDocuments(int count) throws Exception {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            File file = folder.newFile("file" + i + ".txt");
+            Files.write(file.toPath(), Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+            // the cache ignores files modified after the scan started.
+            assertTrue(file.setLastModified(System.currentTimeMillis() - 10000));
+            documents.add(new FileDocument(file));
+        }
+        return documents;
+    }
+
+    /**
+     * Sets the content of the document as its category, taking longer for the earlier documents.
+     */
+    private static final IDocumentAnalyser CONTENT_ANALYSER = document -> {
+        try (InputStream in = document.inputStream()) {
+            String content = IOUtils.toString(in, StandardCharsets.UTF_8);
+            Thread.sleep(Math.max(0, 20 - Integer.parseInt(content)));
+            document.getMetaData().set(new MetaData.Datum(MetaData.RAT_URL_DOCUMENT_CATEGORY, content));
+        } catch (Exception e) {
+            throw new RatDocumentAnalysisException(e);
+        }
+    };
+
+    @Test
+    public void reportsDocumentsInOrder() throws Exception {
+        List<Document> documents = createDocuments(100);
+        List<String> reported = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(CONTENT_ANALYSER,
+                Collections.singletonList(new AbstractReport() {
+                    @Override
+                    public void report(Document document) {
+                        reported.add(document.getMetaData().value(MetaData.RAT_URL_DOCUMENT_CATEGORY));
+                    }
+                }), 4);
+        multiplexer.startReport();
+        for (int i = 0; i < documents.size(); i++) {
+            multiplexer.report(documents.get(i));
+            expected.add(Integer.toString(i));
+        }
+        multiplexer.endReport();
+        assertEquals(expected, reported);
+    }
+
+    @Test
+    public void analysisFailureIsThrown() throws Exception {
+        List<Document> documents = createDocuments(100);
+        ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(document -> {
+            throw new RatDocumentAnalysisException("Cannot analyse " + document.getName());
+        }, Collections.singletonList(new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                fail("Document should not be reported");
+            }
+        }), 4);
+        multiplexer.startReport();
+        try {
+            for (Document document : documents) {
+                multiplexer.report(document);
+            }
+            multiplexer.endReport();
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Cannot analyse "));
+        }
+    }
+
+    @Test
+    public void failureIsRethrownUntilRestarted() throws Exception {
+        List<Document> documents = createDocuments(2);
+        List<Document> reported = new ArrayList<>();
+        ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(document -> {
+            throw new RatDocumentAnalysisException("Cannot analyse " + document.getName());
+        }, Collections.singletonList(new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                reported.add(document);
+            }
+        }), 4);
+        multiplexer.startReport();
+        multiplexer.report(documents.get(0));
+        try {
+            multiplexer.endReport();
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Cannot analyse "));
+        }
+        // the documents are not analysed on the calling thread instead.
+        try {
+            multiplexer.report(documents.get(1));
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Cannot analyse "));
+        }
+        try {
+            multiplexer.endReport();
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Cannot analyse "));
+        }
+        assertEquals(Collections.emptyList(), reported);
+    }
+
+    @Test
+    public void documentsAfterTheEndAreReportedInline() throws Exception {
+        List<Document> documents = createDocuments(1);
+        List<Thread> reported = new ArrayList<>();
+        ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(CONTENT_ANALYSER,
+                Collections.singletonList(new AbstractReport() {
+                    @Override
+                    public void report(Document document) {
+                        reported.add(Thread.currentThread());
+                    }
+                }), 4);
+        multiplexer.startReport();
+        multiplexer.endReport();
+        multiplexer.report(documents.get(0));
+        assertEquals(Collections.singletonList(Thread.currentThread()), reported);
+    }
+
+    @Test(timeout = 10000)
+    public void abortStopsThePipeline() throws Exception {
+        List<Document> documents = createDocuments(10);
+        CountDownLatch firstReported = new CountDownLatch(1);
+        List<Thread> sink = new ArrayList<>();
+        // every document but the first is analysed until the analysis is interrupted.
+        ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(document -> {
+            if (!document.getName().endsWith("file0.txt")) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new RatDocumentAnalysisException(e);
+                }
+            }
+        }, Collections.singletonList(new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                sink.add(Thread.currentThread());
+                firstReported.countDown();
+            }
+        }), 4);
+        multiplexer.startReport();
+        for (Document document : documents) {
+            multiplexer.report(document);
+        }
+        firstReported.await();
+        multiplexer.abort();
+        assertFalse("The report thread is still running", sink.get(0).isAlive());
+        try {
+            multiplexer.report(documents.get(0));
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertEquals("The report was aborted", e.getMessage());
+        }
+    }
+
+    @Test
+    public void cachedDocumentsAreNotRead() throws Exception {
+        List<Document> documents = createDocuments(20);
+        File cacheFile = new File(folder.getRoot(), "rat.cache");
+        List<String> reported = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            AnalysisCache cache = new AnalysisCache(cacheFile, "fingerprint", CONTENT_ANALYSER);
+            ClaimReporterMultiplexer multiplexer = new ClaimReporterMultiplexer(cache, Arrays.asList(cache,
+                    new AbstractReport() {
+                        @Override
+                        public void report(Document document) {
+                            reported.add(document.getMetaData().value(MetaData.RAT_URL_DOCUMENT_CATEGORY));
+                        }
+                    }), 4);
+            reported.clear();
+            List<Document> spies = new ArrayList<>();
+            multiplexer.startReport();
+            for (Document document : documents) {
+                Document spied = spy(new FileDocument(document.getFile()));
+                spies.add(spied);
+                multiplexer.report(spied);
+            }
+            multiplexer.endReport();
+            if (run == 1) {
+                for (Document spied : spies) {
+                    verify(spied, never()).inputStream();
+                }
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            expected.add(Integer.toString(i));
+        }
+        assertEquals(expected, reported);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */
+package org.apache.rat.report.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class TextSpoolTest {
+
+    private void spool(int lines) throws Exception {
+        StringBuilder expected = new StringBuilder();
+        StringWriter out = new StringWriter();
+        try (TextSpool spool = new TextSpool()) {
+            for (int i = 0; i < lines; i++) {
+                String line = "line " + i + "\n";
+                expected.append(line);
+                spool.append(line);
+            }
+            spool.writeTo(out);
+        }
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void inMemory() throws Exception {
+        spool(10);
+    }
+
+    @Test
+    public void inFile() throws Exception {
+        spool(TextSpool.MEMORY_LIMIT);
+    }
+}
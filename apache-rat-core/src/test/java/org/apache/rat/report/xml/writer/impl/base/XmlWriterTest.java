@@ -480,4 +480,29 @@ public class XmlWriterTest {
             // Each attribute may only be written once
         }
     }
+
+    @Test
+    public void batchedOutputIsWrittenOnClose() throws Exception {
+        writer = new XmlWriter(out, true);
+        writer.openElement("alpha").attribute("one", "'1'").openElement("beta").content("a < b").closeElement();
+        assertEquals("Nothing written before the buffer is full", "", out.toString());
+        writer.closeDocument();
+        assertEquals("<alpha one='&apos;1&apos;'><beta>a &lt; b</beta></alpha>", out.toString());
+    }
+
+    @Test
+    public void batchedOutputLargerThanBuffer() throws Exception {
+        StringBuilder content = new StringBuilder();
+        StringBuilder expected = new StringBuilder("<alpha>");
+        for (int i = 0; i < XmlWriter.BUFFER_SIZE; i++) {
+            content.append("x&");
+            expected.append("x&amp;");
+        }
+        expected.append("</alpha>");
+        writer = new XmlWriter(out, true);
+        writer.openElement("alpha").content(content);
+        assertTrue("Full buffers are written", out.toString().length() >= XmlWriter.BUFFER_SIZE);
+        writer.closeDocument();
+        assertEquals(expected.toString(), out.toString());
+    }
 }
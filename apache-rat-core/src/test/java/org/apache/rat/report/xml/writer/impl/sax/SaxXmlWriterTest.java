@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.report.xml.writer.impl.sax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.StringWriter;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.rat.report.xml.writer.InvalidXmlException;
+import org.apache.rat.report.xml.writer.OperationNotAllowedException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SaxXmlWriterTest {
+
+    private SaxXmlWriter writer;
+    private StringWriter out;
+
+    @Before
+    public void setUp() throws Exception {
+        out = new StringWriter();
+        TransformerHandler handler = ((SAXTransformerFactory) TransformerFactory.newInstance()).newTransformerHandler();
+        handler.getTransformer().setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        handler.setResult(new StreamResult(out));
+        writer = new SaxXmlWriter(handler);
+    }
+
+    @Test
+    public void writeDocument() throws Exception {
+        writer.openElement("alpha").attribute("one", "'1'").openElement("beta").content("a < b").closeElement()
+                .openElement("gamma").closeElement().openElement("delta").content("\u0000").closeDocument();
+        assertEquals("<alpha one=\"'1'\"><beta>a &lt; b</beta><gamma/><delta>?</delta></alpha>", out.toString());
+    }
+
+    @Test
+    public void closeDocumentTwice() throws Exception {
+        writer.openElement("alpha").closeDocument();
+        writer.closeDocument();
+        assertEquals("<alpha/>", out.toString());
+    }
+
+    @Test
+    public void duplicateAttributes() throws Exception {
+        writer.openElement("alpha").attribute("one", "1");
+        try {
+            writer.attribute("one", "2");
+            fail("Each attribute may only be written once");
+        } catch (InvalidXmlException e) {
+            // Each attribute may only be written once
+        }
+    }
+
+    @Test
+    public void attributeAfterContent() throws Exception {
+        writer.openElement("alpha").content("text");
+        try {
+            writer.attribute("one", "1");
+            fail("Attributes must directly follow the element");
+        } catch (OperationNotAllowedException e) {
+            // Attributes must directly follow the element
+        }
+    }
+
+    @Test
+    public void secondRootElement() throws Exception {
+        writer.openElement("alpha").closeElement();
+        try {
+            writer.openElement("beta");
+            fail("Only one root element is allowed");
+        } catch (OperationNotAllowedException e) {
+            // Only one root element is allowed
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.compress.archivers.sevenz.SevenZMethod;
+import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.api.Document;
+import org.apache.rat.api.RatException;
+import org.apache.rat.document.impl.DocumentImplUtils;
+import org.apache.rat.document.impl.FileDocument;
+import org.apache.rat.report.AbstractReport;
+import org.apache.rat.report.RatReport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveWalkerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static void addEntry(TarArchiveOutputStream tar, String name, byte[] contents) throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(contents.length);
+        tar.putArchiveEntry(entry);
+        tar.write(contents);
+        tar.closeArchiveEntry();
+    }
+
+    private static RatReport collect(Map<String, byte[]> documents) {
+        return new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                try (InputStream in = document.inputStream()) {
+                    documents.put(document.getName(), IOUtils.toByteArray(in));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+    }
+
+    private Map<String, byte[]> walk(File archive, int prefixLimit) throws Exception {
+        Map<String, byte[]> result = new TreeMap<>();
+        new ArchiveWalker(archive, (dir, name) -> !name.endsWith(".ignored"), prefixLimit).run(collect(result));
+        return result;
+    }
+
+    @Test
+    public void entriesAreFilteredAndTruncated() throws Exception {
+        byte[] large = new byte[1000];
+        Arrays.fill(large, (byte) 'x');
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        File archive = folder.newFile("test.tar.gz");
+        try (OutputStream out = new FileOutputStream(archive);
+                TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+            TarArchiveEntry dir = new TarArchiveEntry("dir/");
+            tar.putArchiveEntry(dir);
+            tar.closeArchiveEntry();
+            addEntry(tar, "dir/large.txt", large);
+            addEntry(tar, "dir/skip.ignored", large);
+            addEntry(tar, "dir/small.txt", small);
+        }
+
+        Map<String, byte[]> documents = walk(archive, 100);
+        assertEquals(2, documents.size());
+        assertEquals(100, documents.get("dir/large.txt").length);
+        assertEquals("small", new String(documents.get("dir/small.txt"), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] tar(String... names) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            for (String name : names) {
+                addEntry(tar, name, name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private void assertEntries(File archive, String... names) throws Exception {
+        Map<String, byte[]> documents = walk(archive, ArchiveWalker.DEFAULT_PREFIX_LIMIT);
+        assertEquals(Arrays.asList(names), new ArrayList<>(documents.keySet()));
+        for (String name : names) {
+            assertEquals(name, new String(documents.get(name), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void plainTar() throws Exception {
+        File archive = folder.newFile("test.tar");
+        Files.write(archive.toPath(), tar("a.txt", "b.txt"));
+        assertEntries(archive, "a.txt", "b.txt");
+    }
+
+    @Test
+    public void bzip2Tar() throws Exception {
+        File archive = folder.newFile("test.bin");
+        try (OutputStream out = new BZip2CompressorOutputStream(new FileOutputStream(archive))) {
+            out.write(tar("a.txt"));
+        }
+        assertEntries(archive, "a.txt");
+    }
+
+    @Test
+    public void zip() throws Exception {
+        File archive = folder.newFile("test.zip");
+        try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(archive)) {
+            zip.putArchiveEntry(new ZipArchiveEntry("a.txt"));
+            zip.write("a.txt".getBytes(StandardCharsets.UTF_8));
+            zip.closeArchiveEntry();
+        }
+        assertEntries(archive, "a.txt");
+    }
+
+    @Test
+    public void sevenZ() throws Exception {
+        File archive = folder.newFile("test.7z");
+        try (SevenZOutputFile sevenZ = new SevenZOutputFile(archive)) {
+            sevenZ.setContentCompression(SevenZMethod.DEFLATE);
+            sevenZ.putArchiveEntry(sevenZ.createArchiveEntry(folder.newFile("a.txt"), "a.txt"));
+            sevenZ.write("a.txt".getBytes(StandardCharsets.UTF_8));
+            sevenZ.closeArchiveEntry();
+        }
+        assertEntries(archive, "a.txt");
+    }
+
+    @Test
+    public void unknownFormat() throws Exception {
+        File archive = folder.newFile("test.txt");
+        Files.write(archive.toPath(), "not an archive".getBytes(StandardCharsets.UTF_8));
+        assertEntries(archive);
+    }
+
+    @Test
+    public void xzTar() throws Exception {
+        File archive = folder.newFile("test.txz");
+        try (OutputStream out = new XZCompressorOutputStream(new FileOutputStream(archive))) {
+            out.write(tar("a.txt"));
+        }
+        assertEntries(archive, "a.txt");
+    }
+
+    @Test
+    public void missingDecoderFailsTheWalk() throws Exception {
+        // the Zstandard decoder library is not a dependency.
+        byte[] zstd = {0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0, 0, 0, 0};
+        File archive = folder.newFile("test.tar.zst");
+        Files.write(archive.toPath(), zstd);
+        try {
+            walk(archive, ArchiveWalker.DEFAULT_PREFIX_LIMIT);
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("com.github.luben:zstd-jni"));
+        }
+
+        File outer = folder.newFile("outer.tar");
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new FileOutputStream(outer))) {
+            addEntry(tar, "lib.tar.gz", zstd);
+        }
+        try {
+            new ArchiveWalker(outer, null, ArchiveWalker.DEFAULT_PREFIX_LIMIT, 1).run(collect(new TreeMap<>()));
+            fail("Should have thrown RatException");
+        } catch (RatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("lib.tar.gz"));
+        }
+    }
+
+    @Test
+    public void nestedSevenZ() throws Exception {
+        File sevenZFile = folder.newFile("inner.7z");
+        try (SevenZOutputFile sevenZ = new SevenZOutputFile(sevenZFile)) {
+            sevenZ.setContentCompression(SevenZMethod.DEFLATE);
+            sevenZ.putArchiveEntry(sevenZ.createArchiveEntry(folder.newFile("a.txt"), "a.txt"));
+            sevenZ.write("a.txt".getBytes(StandardCharsets.UTF_8));
+            sevenZ.closeArchiveEntry();
+        }
+        File archive = folder.newFile("outer.tar");
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new FileOutputStream(archive))) {
+            // nested archives are recognised by name and read in the format of their signature.
+            addEntry(tar, "inner.jar", Files.readAllBytes(sevenZFile.toPath()));
+        }
+        Map<String, byte[]> documents = new TreeMap<>();
+        new ArchiveWalker(archive, null, ArchiveWalker.DEFAULT_PREFIX_LIMIT, 1).run(collect(documents));
+        assertEquals(Arrays.asList("inner.jar", "inner.jar!/a.txt"), new ArrayList<>(documents.keySet()));
+        assertEquals("a.txt", new String(documents.get("inner.jar!/a.txt"), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] zip(String name, byte[] contents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out)) {
+            zip.putArchiveEntry(new ZipArchiveEntry(name));
+            zip.write(contents);
+            zip.closeArchiveEntry();
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void nestedArchives() throws Exception {
+        byte[] inner = zip("Foo.java", "Foo.java".getBytes(StandardCharsets.UTF_8));
+        byte[] middle = zip("lib/x.jar", inner);
+        File archive = folder.newFile("a.tar.gz");
+        try (OutputStream out = new FileOutputStream(archive);
+                TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+            addEntry(tar, "app.war", middle);
+        }
+
+        Map<String, byte[]> documents = new TreeMap<>();
+        new ArchiveWalker(archive, null, ArchiveWalker.DEFAULT_PREFIX_LIMIT, 2).run(collect(documents), "a.tar.gz");
+        assertEquals(Arrays.asList("a.tar.gz!/app.war", "a.tar.gz!/app.war!/lib/x.jar",
+                "a.tar.gz!/app.war!/lib/x.jar!/Foo.java"), new ArrayList<>(documents.keySet()));
+        assertEquals("Foo.java",
+                new String(documents.get("a.tar.gz!/app.war!/lib/x.jar!/Foo.java"), StandardCharsets.UTF_8));
+
+        documents.clear();
+        new ArchiveWalker(archive, null, ArchiveWalker.DEFAULT_PREFIX_LIMIT, 1).run(collect(documents), "a.tar.gz");
+        assertEquals(Arrays.asList("a.tar.gz!/app.war", "a.tar.gz!/app.war!/lib/x.jar"),
+                new ArrayList<>(documents.keySet()));
+    }
+
+    @Test
+    public void nestedArchiveReport() throws Exception {
+        File archive = folder.newFile("x.jar");
+        Files.write(archive.toPath(), zip("Foo.java", "Foo.java".getBytes(StandardCharsets.UTF_8)));
+        Map<String, byte[]> documents = new TreeMap<>();
+        new NestedArchiveReport(collect(documents), null, 1).report(new FileDocument(archive));
+        assertEquals(Arrays.asList(DocumentImplUtils.toName(archive), DocumentImplUtils.toName(archive) + "!/Foo.java"),
+                new ArrayList<>(documents.keySet()));
+    }
+
+    private static List<String> names(File archive, int threads) throws Exception {
+        List<String> names = new ArrayList<>();
+        new ArchiveWalker(archive, null, 10, 0, threads).run(new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                try (InputStream in = document.inputStream()) {
+                    names.add(document.getName() + "=" + IOUtils.toString(in, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        return names;
+    }
+
+    @Test
+    public void parallelZipKeepsArchiveOrder() throws Exception {
+        File archive = folder.newFile("many.jar");
+        List<String> expected = new ArrayList<>();
+        try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(archive)) {
+            for (int i = 0; i < 500; i++) {
+                String name = "dir/File" + (500 - i) + ".java";
+                zip.putArchiveEntry(new ZipArchiveEntry(name));
+                zip.write((name + " with some content").getBytes(StandardCharsets.UTF_8));
+                zip.closeArchiveEntry();
+                expected.add(name + "=" + (name + " with some content").substring(0, 10));
+            }
+        }
+        assertEquals(expected, names(archive, 1));
+        assertEquals(expected, names(archive, 4));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.rat.api.Document;
+import org.apache.rat.report.AbstractReport;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChangedFilesWalkerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private void git(String... args) throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList("git", "-c", "user.name=test", "-c",
+                "user.email=test@example.org", "-c", "commit.gpgsign=false"));
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).directory(folder.getRoot()).redirectErrorStream(true).start();
+        String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
+        assertEquals(String.join(" ", args) + ": " + output, 0, process.waitFor());
+    }
+
+    private void write(String path, String contents) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Before
+    public void createRepository() throws Exception {
+        try {
+            git("init", "-q");
+        } catch (IOException e) {
+            Assume.assumeNoException("git is not available", e);
+        }
+        write("unchanged.txt", "a");
+        write("modified.txt", "a");
+        write("deleted.txt", "a");
+        write("sub/committed.txt", "a");
+        write(".gitignore", "*.log\n");
+        git("add", "-A");
+        git("commit", "-q", "-m", "base");
+        git("tag", "base");
+        write("sub/committed.txt", "b");
+        git("commit", "-q", "-a", "-m", "change");
+        write("modified.txt", "b");
+        Files.delete(new File(folder.getRoot(), "deleted.txt").toPath());
+        write("untracked.txt", "a");
+        write("ignored.log", "a");
+        write("excluded/new.txt", "a");
+    }
+
+    @Test
+    public void changedFiles() throws Exception {
+        assertEquals(Arrays.asList("excluded/new.txt", "modified.txt", "sub/committed.txt", "untracked.txt"),
+                new ArrayList<>(ChangedFilesWalker.changedFiles(folder.getRoot(), "base")));
+        assertEquals(Arrays.asList("committed.txt"),
+                new ArrayList<>(ChangedFilesWalker.changedFiles(new File(folder.getRoot(), "sub"), "base")));
+    }
+
+    @Test
+    public void reportsOnlyChangedFilesThatAreNotIgnored() throws Exception {
+        List<String> names = new ArrayList<>();
+        new ChangedFilesWalker(folder.getRoot(), (dir, name) -> !"excluded".equals(name), "base")
+                .run(new AbstractReport() {
+                    @Override
+                    public void report(Document document) {
+                        names.add(document.getFile().getName());
+                    }
+                });
+        assertEquals(Arrays.asList("modified.txt", "committed.txt", "untracked.txt"), names);
+    }
+}
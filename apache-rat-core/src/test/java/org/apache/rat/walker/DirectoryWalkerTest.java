@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.rat.api.Document;
+import org.apache.rat.report.AbstractReport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DirectoryWalkerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(File file, String contents) throws Exception {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void filesAreReportedBeforeSubdirectoriesInNameOrder() throws Exception {
+        File root = folder.getRoot();
+        write(new File(root, "b.txt"), "bb");
+        write(new File(root, "a.txt"), "a");
+        write(new File(root, "c.ignored"), "c");
+        write(new File(root, "sub/d.txt"), "dddd");
+        write(new File(root, ".hidden/e.txt"), "e");
+        write(new File(root, "skipped.ignored/f.txt"), "f");
+
+        List<String> names = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        new DirectoryWalker(root, (dir, name) -> !name.endsWith(".ignored")).run(new AbstractReport() {
+            @Override
+            public void report(Document document) {
+                BasicFileAttributes attributes = document.getFileAttributes();
+                assertNotNull(document.getName(), attributes);
+                names.add(root.toPath().relativize(document.getFile().toPath()).toString().replace(File.separatorChar, '/'));
+                sizes.add(attributes.size());
+            }
+        });
+
+        assertEquals(Arrays.asList("a.txt", "b.txt", "sub/d.txt"), names);
+        assertEquals(Arrays.asList(1L, 2L, 4L), sizes);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.rat.api.Document;
+import org.apache.rat.report.AbstractReport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileListWalkerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void createFiles() throws Exception {
+        for (String path : Arrays.asList("a.txt", "sub/b.txt", "sub/c d.txt", "excluded/e.txt", ".hidden/f.txt")) {
+            File file = new File(folder.getRoot(), path);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), path.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private List<String> run(String list, boolean nulSeparated) throws Exception {
+        return run(list, nulSeparated, new ArrayList<>());
+    }
+
+    private List<String> run(String list, boolean nulSeparated, List<String> warnings) throws Exception {
+        List<String> result = new ArrayList<>();
+        byte[] bytes = list.getBytes(StandardCharsets.UTF_8);
+        new FileListWalker(folder.getRoot(), (dir, name) -> !"excluded".equals(name),
+                () -> new ByteArrayInputStream(bytes), nulSeparated, warnings::add).run(new AbstractReport() {
+                    @Override
+                    public void report(Document document) {
+                        result.add(folder.getRoot().toPath().relativize(document.getFile().toPath()).toString()
+                                .replace(File.separatorChar, '/'));
+                    }
+                });
+        return result;
+    }
+
+    @Test
+    public void lineSeparatedList() throws Exception {
+        String absolute = new File(folder.getRoot(), "sub/b.txt").getAbsolutePath();
+        assertEquals(Arrays.asList("a.txt", "sub/b.txt", "sub/c d.txt"),
+                run("a.txt\r\n" + absolute + "\n\n./sub/c d.txt\nmissing.txt\nsub\nexcluded/e.txt\n.hidden/f.txt",
+                        false));
+    }
+
+    @Test
+    public void nulSeparatedList() throws Exception {
+        assertEquals(Arrays.asList("sub/c d.txt", "a.txt"), run("sub/c d.txt\0a.txt\0excluded/e.txt\0", true));
+    }
+
+    @Test
+    public void dotSegmentsAreResolvedBeforeFiltering() throws Exception {
+        assertEquals(Arrays.asList("a.txt", "sub/b.txt"),
+                run("sub/../a.txt\nexcluded/../sub/./b.txt\nsub/../excluded/e.txt\nsub/../.hidden/f.txt", false));
+    }
+
+    @Test
+    public void pathsLeavingTheDirectoryAreResolved() throws Exception {
+        File outside = folder.newFile("outside.txt");
+        File base = new File(folder.getRoot(), "sub");
+        List<File> result = new ArrayList<>();
+        byte[] bytes = "../outside.txt".getBytes(StandardCharsets.UTF_8);
+        new FileListWalker(base, (dir, name) -> !"excluded".equals(name), () -> new ByteArrayInputStream(bytes),
+                false).run(new AbstractReport() {
+                    @Override
+                    public void report(Document document) {
+                        result.add(document.getFile());
+                    }
+                });
+        assertEquals(Arrays.asList(outside), result);
+    }
+
+    @Test
+    public void skippedPathsAreWarnedAbout() throws Exception {
+        List<String> warnings = new ArrayList<>();
+        assertEquals(Arrays.asList("a.txt"), run("a.txt\nmissing.txt\nsub\nexcluded/e.txt\n.hidden/f.txt", false,
+                warnings));
+        assertEquals(Arrays.asList("Skipping missing.txt: not a file", "Skipping sub: not a file",
+                "Skipping excluded/e.txt: excluded", "Skipping .hidden/f.txt: excluded"), warnings);
+    }
+
+    @Test
+    public void absolutePathsAreFilteredByTheirRelativePath() throws Exception {
+        List<String> warnings = new ArrayList<>();
+        String excluded = new File(folder.getRoot(), "excluded/e.txt").getAbsolutePath();
+        String hidden = new File(folder.getRoot(), ".hidden/f.txt").getAbsolutePath();
+        String included = new File(folder.getRoot(), "sub/./b.txt").getAbsolutePath();
+        assertEquals(Arrays.asList("sub/b.txt"), run(excluded + "\n" + hidden + "\n" + included, false, warnings));
+        assertEquals(Arrays.asList("Skipping " + excluded + ": excluded", "Skipping " + hidden + ": excluded"),
+                warnings);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.OrFileFilter;
+import org.apache.commons.io.filefilter.RegexFileFilter;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.junit.Test;
+
+public class NamePatternFilterTest {
+
+    private static final List<String> PATTERNS = Arrays.asList("README", "*.log", "build*", "*~", "a?c.txt",
+            "x*y*z", "*", ".*\\.bak", "foo.txt", "te+st[0-9]\\.java", "(one|two)\\.md", "ab?c", "\\d+\\.out",
+            "*.[ch]");
+
+    private static final List<String> NAMES = Arrays.asList("README", "README.md", "server.log", "log",
+            "build.xml", "rebuild", "file~", "abc.txt", "ac.txt", "xaybz", "xyz", "x.bak", "a.bak.txt", "foo.txt",
+            "fooXtxt", "teeest7.java", "test.java", "one.md", "three.md", "ac", "abc", "abbc", "12.out",
+            "a.out", "x.[ch]", "x.c", "");
+
+    /**
+     * The filter the command line used to build, one filter of each kind per pattern.
+     */
+    private static OrFileFilter legacy(List<String> patterns) {
+        OrFileFilter filter = new OrFileFilter();
+        for (String pattern : patterns) {
+            try {
+                filter.addFileFilter(new RegexFileFilter(pattern));
+            } catch (PatternSyntaxException e) {
+                // the compiled filter still matches the pattern as a name and a wildcard
+            }
+            filter.addFileFilter(new NameFileFilter(pattern));
+            filter.addFileFilter(new WildcardFileFilter(pattern));
+        }
+        return filter;
+    }
+
+    @Test
+    public void matchesLikeOneFilterOfEachKindPerPattern() {
+        File dir = new File(".");
+        for (String pattern : PATTERNS) {
+            List<String> single = Arrays.asList(pattern);
+            NamePatternFilter filter = new NamePatternFilter(single, message -> {});
+            OrFileFilter expected = legacy(single);
+            for (String name : NAMES) {
+                assertEquals(pattern + " on " + name, expected.accept(dir, name), filter.matches(name));
+            }
+        }
+        List<String> all = new ArrayList<>(PATTERNS);
+        all.remove("*");
+        NamePatternFilter filter = new NamePatternFilter(all, message -> {});
+        OrFileFilter expected = legacy(all);
+        for (String name : NAMES) {
+            assertEquals(name, expected.accept(dir, name), filter.matches(name));
+            assertEquals(name, !expected.accept(dir, name), filter.accept(dir, name));
+        }
+    }
+
+    @Test
+    public void invalidRegexStillMatchesAsWildcard() {
+        List<String> errors = new ArrayList<>();
+        NamePatternFilter filter = new NamePatternFilter(Arrays.asList("*.log", "target"), errors::add);
+        assertEquals(1, errors.size());
+        assertTrue(filter.matches("build.log"));
+        assertTrue(filter.matches("target"));
+        assertFalse(filter.matches("build.xml"));
+    }
+}
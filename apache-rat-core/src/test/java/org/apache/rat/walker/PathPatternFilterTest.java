@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ */ 
+package org.apache.rat.walker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PathPatternFilterTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static PathPatternFilter filter(String... patterns) {
+        return new PathPatternFilter(null, Arrays.asList(patterns));
+    }
+
+    @Test
+    public void normalize() {
+        assertEquals("target/**", PathPatternFilter.normalize(" ./target/ "));
+        assertEquals("target/**", PathPatternFilter.normalize("/target/**/*"));
+        assertEquals("a/b", PathPatternFilter.normalize("%ant[a\\b]"));
+        assertEquals("%regex[.*\\.txt]", PathPatternFilter.normalize("%regex[.*\\.txt]"));
+        assertNull(PathPatternFilter.normalize("# comment"));
+        assertNull(PathPatternFilter.normalize("  "));
+    }
+
+    @Test
+    public void subtreesAreExcludedWithTheirDirectory() {
+        PathPatternFilter filter = filter("target/**", "**/.venv/**", "node_modules/");
+        assertTrue(filter.matches("target"));
+        assertTrue(filter.matches("target/classes/A.class"));
+        assertTrue(filter.matches("a/b/.venv"));
+        assertTrue(filter.matches(".venv/lib/x.py"));
+        assertTrue(filter.matches("node_modules/x/index.js"));
+        assertFalse(filter.matches("src/target"));
+        assertFalse(filter.matches("src/node_modules/x"));
+        assertFalse(filter.matches("venv/x.py"));
+    }
+
+    @Test
+    public void literalsAndWildcards() {
+        PathPatternFilter filter = filter("build.log", "**/MANIFEST.MF", "*.iml", "src/**/*.txt", "doc/?.md",
+                "%regex[.*\\.bak]");
+        assertTrue(filter.matches("build.log"));
+        assertFalse(filter.matches("sub/build.log"));
+        assertTrue(filter.matches("META-INF/MANIFEST.MF"));
+        assertTrue(filter.matches("x.iml"));
+        assertFalse(filter.matches("sub/x.iml"));
+        assertTrue(filter.matches("src/a.txt"));
+        assertTrue(filter.matches("src/a/b/c.txt"));
+        assertFalse(filter.matches("src/a.java"));
+        assertTrue(filter.matches("doc/a.md"));
+        assertFalse(filter.matches("doc/ab.md"));
+        assertTrue(filter.matches("x/y.bak"));
+        assertFalse(filter(new String[0]).matches("anything"));
+        assertTrue(filter("**").matches("anything/at/all"));
+    }
+
+    @Test
+    public void directoryMatchesDoNotExcludeTheirContents() {
+        PathPatternFilter filter = filter("target", "**/*.java", "src/**/*.txt", "%regex[gen]");
+        assertTrue(filter.matches("target"));
+        assertFalse(filter.excludesTree("target"));
+        assertFalse(filter.matches("target/a.txt"));
+        assertTrue(filter.matches("dir.java"));
+        assertFalse(filter.excludesTree("dir.java"));
+        assertFalse(filter.matches("dir.java/a.txt"));
+        assertTrue(filter.matches("src/a.txt"));
+        assertFalse(filter.excludesTree("src"));
+        assertTrue(filter.matches("gen"));
+        assertFalse(filter.matches("gen/a.txt"));
+        assertFalse(filter.excludesTree("gen"));
+
+        filter = filter("target/**", "**/.venv/**", "a/*/b/**");
+        assertTrue(filter.excludesTree("target"));
+        assertTrue(filter.excludesTree("target/classes"));
+        assertTrue(filter.excludesTree("x/.venv"));
+        assertTrue(filter.excludesTree("a/x/b"));
+        assertFalse(filter.excludesTree("a/x"));
+    }
+
+    @Test
+    public void acceptUsesPathsRelativeToTheBase() {
+        File base = new File("base");
+        PathPatternFilter filter = new PathPatternFilter(base, Arrays.asList("target/**"));
+        assertFalse(filter.accept(base, "target"));
+        assertTrue(filter.accept(new File(base, "src"), "target"));
+        assertTrue(filter.accept(base, "pom.xml"));
+    }
+
+    @Test
+    public void acceptWalksMatchingDirectoriesThatAreNotCovered() throws Exception {
+        File base = folder.getRoot();
+        new File(base, "target").mkdir();
+        folder.newFile("build");
+        PathPatternFilter filter = new PathPatternFilter(base, Arrays.asList("target", "build", "out/**"));
+        assertTrue(filter.accept(base, "target"));
+        assertTrue(filter.accept(new File(base, "target"), "a.txt"));
+        assertFalse(filter.accept(base, "build"));
+        assertFalse(filter.accept(base, "out"));
+    }
+}
@@ -58,9 +58,10 @@ import org.apache.rat.configuration.LicenseReader;
 import org.apache.rat.configuration.MatcherReader;
 import org.apache.rat.configuration.MatcherBuilderTracker;
 import org.apache.rat.license.ILicense;
+import org.apache.rat.mp.util.PruningDirectoryScanner;
 import org.apache.rat.mp.util.ScmIgnoreParser;
 import org.apache.rat.report.IReportable;
-import org.codehaus.plexus.util.DirectoryScanner;
+import org.apache.rat.walker.ChangedFilesWalker;
 
 /**
  * Abstract base class for Mojos, which are running Rat.
@@ -178,6 +179,11 @@ public abstract class AbstractRatMojo extends AbstractMojo {
     /**
      * Whether to parse source code management system (SCM) ignore files and use
      * their contents as excludes. At the moment this works for the following SCMs:
+     * <p>
+     * Git ignore files follow git's rules: the {@code .gitignore} files of nested
+     * directories and of the directories up to the repository root are used, as well
+     * as {@code .git/info/exclude}, and ignored directories are not scanned.
+     * </p>
      *
      * @see org.apache.rat.config.SourceCodeManagementSystems
      */
@@ -218,6 +224,66 @@ public abstract class AbstractRatMojo extends AbstractMojo {
     @Parameter(property = "rat.skip", defaultValue = "false")
     protected boolean skip;
 
+    /**
+     * The number of threads used to analyse files. The report is identical
+     * whatever the number of threads.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.threads", defaultValue = "1")
+    private int threads;
+
+    /**
+     * The maximum number of lines read from each file while looking for a
+     * license, 0 for no limit.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.scanLineLimit", defaultValue = "0")
+    private int scanLineLimit;
+
+    /**
+     * The maximum number of characters read from each file while looking for a
+     * license, 0 for no limit.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.scanCharLimit", defaultValue = "0")
+    private long scanCharLimit;
+
+    /**
+     * A file to cache analysis results in between builds, for example
+     * {@code ${project.build.directory}/rat.cache}. Files whose path, size and
+     * modification time are unchanged are not read again as long as the license
+     * configuration is unchanged. By default no cache is used.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.cacheFile")
+    private File cacheFile;
+
+    /**
+     * The number of levels of nested archives, such as vendored jars, whose
+     * entries are scanned. Entries are reported with names such as
+     * {@code lib/x.jar!/Foo.java}. Defaults to 0, archives are reported as a
+     * whole.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.archiveDepth", defaultValue = "0")
+    private int archiveDepth;
+
+    /**
+     * A git reference, such as {@code origin/main}. When set, only the files
+     * changed since the merge base with this reference, and the new untracked
+     * files, are checked instead of the whole base directory. The changes are
+     * read from the local repository, the excludes and includes still apply.
+     *
+     * @since 0.16
+     */
+    @Parameter(property = "rat.changedSince")
+    private String changedSince;
+
     /**
      * Holds the maven-internal project to allow resolution of artifact properties
      * during mojo runs.
@@ -290,6 +356,11 @@ public abstract class AbstractRatMojo extends AbstractMojo {
         if (approvedLicenses != null && approvedLicenses.length > 0) {
             Arrays.stream(approvedLicenses).forEach(result::addApprovedLicenseCategory);
         }
+        result.setThreads(threads);
+        result.setScanLineLimit(scanLineLimit);
+        result.setScanCharLimit(scanCharLimit);
+        result.setCacheFile(cacheFile);
+        result.setArchiveDepth(archiveDepth);
         result.setReportable(getReportable());
         return result;
     }
@@ -311,11 +382,19 @@ public abstract class AbstractRatMojo extends AbstractMojo {
      * UndeclaredThrowableExceptions.
      */
     private IReportable getReportable() throws MojoExecutionException {
-        final DirectoryScanner ds = new DirectoryScanner();
-        ds.setBasedir(basedir);
-        setExcludes(ds);
-        setIncludes(ds);
-        ds.scan();
+        final PruningDirectoryScanner ds = new PruningDirectoryScanner(getLog(), basedir, getExcludes(),
+                getIncludes());
+        ds.setUseGitIgnores(parseSCMIgnoresAsExcludes);
+        try {
+            if (changedSince == null) {
+                ds.scan();
+            } else {
+                getLog().debug("Checking the files changed since " + changedSince);
+                ds.scan(ChangedFilesWalker.changedFiles(basedir, changedSince));
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Can not scan " + basedir, e);
+        }
         whenDebuggingLogExcludedFiles(ds);
         final String[] files = ds.getIncludedFiles();
         logAboutIncludedFiles(files);
@@ -339,9 +418,9 @@ public abstract class AbstractRatMojo extends AbstractMojo {
         }
     }
 
-    private void whenDebuggingLogExcludedFiles(final DirectoryScanner ds) {
+    private void whenDebuggingLogExcludedFiles(final PruningDirectoryScanner ds) {
         if (getLog().isDebugEnabled()) {
-            final String[] excludedFiles = ds.getExcludedFiles();
+            final String[] excludedFiles = ds.getExcludedPaths();
             if (excludedFiles.length == 0) {
                 getLog().debug("No excluded resources.");
             } else {
@@ -353,9 +432,9 @@ public abstract class AbstractRatMojo extends AbstractMojo {
         }
     }
 
-    private void setIncludes(DirectoryScanner ds) throws MojoExecutionException {
+    private List<String> getIncludes() throws MojoExecutionException {
+        final List<String> includeList = new ArrayList<>();
         if ((includes != null && includes.length > 0) || includesFile != null) {
-            final List<String> includeList = new ArrayList<>();
             if (includes != null) {
                 includeList.addAll(Arrays.asList(includes));
             }
@@ -369,8 +448,8 @@ public abstract class AbstractRatMojo extends AbstractMojo {
                 }
                 includeList.addAll(getPatternsFromFile(f, charset));
             }
-            ds.setIncludes(includeList.toArray(new String[includeList.size()]));
         }
+        return includeList;
     }
 
     private List<String> getPatternsFromFile(File pFile, String pCharset) throws MojoExecutionException {
@@ -452,7 +531,7 @@ public abstract class AbstractRatMojo extends AbstractMojo {
         return patterns;
     }
 
-    private void setExcludes(DirectoryScanner ds) throws MojoExecutionException {
+    private List<String> getExcludes() throws MojoExecutionException {
         final List<String> excludeList = mergeDefaultExclusions();
         if (excludes == null || excludes.length == 0) {
             getLog().debug("No excludes explicitly specified.");
@@ -465,10 +544,7 @@ public abstract class AbstractRatMojo extends AbstractMojo {
         if (excludes != null) {
             Collections.addAll(excludeList, excludes);
         }
-        if (!excludeList.isEmpty()) {
-            final String[] allExcludes = excludeList.toArray(new String[excludeList.size()]);
-            ds.setExcludes(allExcludes);
-        }
+        return excludeList;
     }
 
     private List<String> mergeDefaultExclusions() throws MojoExecutionException {
@@ -481,7 +557,9 @@ public abstract class AbstractRatMojo extends AbstractMojo {
 
         if (parseSCMIgnoresAsExcludes) {
             getLog().debug("Will parse SCM ignores for exclusions...");
-            results.addAll(ScmIgnoreParser.getExclusionsFromSCM(getLog(), project.getBasedir()));
+            // git ignore files are evaluated while scanning, see PruningDirectoryScanner.setUseGitIgnores
+            results.addAll(ScmIgnoreParser.getExclusionsFromSCM(getLog(), project.getBasedir(),
+                    Collections.singleton(SourceCodeManagementSystems.GIT)));
             getLog().debug("Finished adding exclusions from SCM ignore files.");
         }
 
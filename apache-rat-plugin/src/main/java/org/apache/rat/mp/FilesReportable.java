@@ -61,10 +61,9 @@ class FilesReportable implements IReportable
 
     public void run( RatReport report ) throws RatException
     {
-        FileDocument document = new FileDocument();
         for (String file : files) {
+            FileDocument document = new FileDocument();
             document.setFile(new File(basedir, file));
-            document.getMetaData().clear();
             report.report(document);
         }
     }
@@ -101,6 +100,11 @@ class FilesReportable implements IReportable
         public InputStream inputStream() throws IOException {
             return new FileInputStream(file);
         }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
         
         @Override
         public String toString() {
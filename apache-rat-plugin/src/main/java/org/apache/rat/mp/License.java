@@ -38,6 +38,12 @@ public class License extends EnclosingMatcher {
     @Parameter(required = true)
     private String name;
 
+    @Parameter(required = false)
+    private int scanLineLimit;
+
+    @Parameter(required = false)
+    private long scanCharLimit;
+
     public License() {
     }
 
@@ -48,7 +54,8 @@ public class License extends EnclosingMatcher {
 
     public ILicense build() {
         return builder.setDerivedFrom(derivedFrom).setLicenseFamilyCategory(id)
-                .setLicenseFamilyName(name).setNotes(notes).build();
+                .setLicenseFamilyName(name).setNotes(notes).setScanLineLimit(scanLineLimit)
+                .setScanCharLimit(scanCharLimit).build();
     }
 
 }
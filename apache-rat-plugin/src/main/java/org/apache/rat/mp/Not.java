@@ -18,6 +18,7 @@
  */
 package org.apache.rat.mp;
 
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.rat.analysis.IHeaderMatcher;
 import org.apache.rat.analysis.IHeaderMatcher.Builder;
 import org.apache.rat.configuration.builders.NotBuilder;
@@ -26,6 +27,12 @@ public class Not extends EnclosingMatcher implements IHeaderMatcher.Builder {
 
     NotBuilder builder = Builder.not();
 
+    @Parameter(required = false)
+    private String lines;
+
+    @Parameter(required = false)
+    private String chars;
+
     public Not() {
     }
 
@@ -36,6 +43,12 @@ public class Not extends EnclosingMatcher implements IHeaderMatcher.Builder {
 
     @Override
     public IHeaderMatcher build() {
+        if (lines != null) {
+            builder.setLines(lines);
+        }
+        if (chars != null) {
+            builder.setChars(chars);
+        }
         return builder.build();
     }
 }
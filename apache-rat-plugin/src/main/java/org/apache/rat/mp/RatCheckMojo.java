@@ -28,7 +28,6 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.rat.Defaults;
 import org.apache.rat.ReportConfiguration;
 import org.apache.rat.Reporter;
 import org.apache.rat.config.AddLicenseHeaders;
@@ -94,6 +93,11 @@ public class RatCheckMojo extends AbstractRatMojo {
     @Parameter(property = "rat.consoleOutput", defaultValue = "true")
     private boolean consoleOutput;
 
+    /**
+     * The listing of the files with unapproved licenses written by the scan, null if it was not written.
+     */
+    private ByteArrayOutputStream consoleReport;
+
     /**
      * Invoked by Maven to execute the Mojo.
      *
@@ -116,6 +120,13 @@ public class RatCheckMojo extends AbstractRatMojo {
             throw new MojoExecutionException("Could not create report parent directory " + parent);
         }
 
+        // the console listing is written by the same scan as the report and only shown if the check fails.
+        consoleReport = null;
+        if (consoleOutput) {
+            ByteArrayOutputStream listing = new ByteArrayOutputStream();
+            config.addOutput(() -> listing, ReportConfiguration.Style.UNAPPROVED_LICENSES);
+            consoleReport = listing;
+        }
         try {
             final ClaimStatistic report = Reporter.report(config);
             check(report, config);
@@ -126,6 +137,14 @@ public class RatCheckMojo extends AbstractRatMojo {
         }
     }
 
+    /**
+     * Checks the statistics of the report against the number of unapproved licenses accepted.  When the console
+     * output is enabled the files with unapproved licenses are listed from the output written during
+     * {@link #execute()}, or by running the report again with the configuration if there is no such output.
+     * @param statistics the statistics of the report.
+     * @param config the configuration of the report.
+     * @throws MojoFailureException if there are too many files with unapproved licenses.
+     */
     protected void check(ClaimStatistic statistics, ReportConfiguration config) throws MojoFailureException {
         if (numUnapprovedLicenses > 0) {
             getLog().info("You requested to accept " + numUnapprovedLicenses + " files with unapproved licenses.");
@@ -141,11 +160,7 @@ public class RatCheckMojo extends AbstractRatMojo {
         if (numUnapprovedLicenses < statistics.getNumUnApproved()) {
             if (consoleOutput) {
                 try {
-                    config.setStyleSheet(Defaults.getUnapprovedLicensesStyleSheet());
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    config.setOut(()->baos);
-                    Reporter.report(config);
-                    getLog().warn(baos.toString());
+                    getLog().warn(unapprovedLicensesListing(config));
                 } catch (Exception e) {
                     getLog().warn("Unable to print the files with unapproved licenses to the console.");
                 }
@@ -161,6 +176,23 @@ public class RatCheckMojo extends AbstractRatMojo {
         }
     }
 
+    /**
+     * Gets the listing of the files with unapproved licenses.
+     * @param config the configuration to run the report with if the listing was not written by the scan.
+     * @return the listing.
+     * @throws Exception if the report can not be run.
+     */
+    private String unapprovedLicensesListing(ReportConfiguration config) throws Exception {
+        if (consoleReport != null) {
+            return consoleReport.toString("UTF-8");
+        }
+        config.setStyle(ReportConfiguration.Style.UNAPPROVED_LICENSES);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        config.setOut(() -> baos);
+        Reporter.report(config);
+        return baos.toString();
+    }
+
     @Override
     protected ReportConfiguration getConfiguration() throws MojoExecutionException {
         final ReportConfiguration configuration = super.getConfiguration();
@@ -0,0 +1,208 @@
+package org.apache.rat.mp.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The rules of one git ignore file, following the pattern format of gitignore(5): negation with {@code !},
+ * directory only rules ending in {@code /}, rules containing a {@code /} anchored to the directory of the file,
+ * {@code *}, {@code ?}, {@code [...]} and {@code **}.  Within a file the last matching rule decides.
+ */
+public final class GitIgnore {
+    /** The name of the per directory ignore file. */
+    public static final String FILE_NAME = ".gitignore";
+
+    private final List<Rule> rules;
+
+    private GitIgnore(final List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Parses the lines of an ignore file.
+     * @param lines the lines.
+     * @return the rules or null if there are none.
+     */
+    public static GitIgnore parse(final List<String> lines) {
+        final List<Rule> rules = new ArrayList<>();
+        for (String line : lines) {
+            final Rule rule = Rule.compile(line);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        return rules.isEmpty() ? null : new GitIgnore(rules);
+    }
+
+    /**
+     * Reads an ignore file.
+     * @param file the file.
+     * @return the rules or null if the file does not exist or has no rules.
+     * @throws IOException if the file can not be read.
+     */
+    public static GitIgnore read(final File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        return parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Matches a path against the rules.
+     * @param path the path relative to the directory of the ignore file, using {@code /} as the separator.
+     * @param directory {@code true} if the path is a directory.
+     * @return {@code TRUE} if the path is ignored, {@code FALSE} if a negated rule includes it again, null if no
+     * rule matches.
+     */
+    public Boolean isIgnored(final String path, final boolean directory) {
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            final Rule rule = rules.get(i);
+            if ((directory || !rule.directoryOnly) && rule.pattern.matcher(path).matches()) {
+                return !rule.negated;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        private final Pattern pattern;
+        private final boolean negated;
+        private final boolean directoryOnly;
+
+        private Rule(final Pattern pattern, final boolean negated, final boolean directoryOnly) {
+            this.pattern = pattern;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+        }
+
+        private static Rule compile(final String line) {
+            String text = line;
+            // trailing spaces are ignored unless escaped
+            int end = text.length();
+            while (end > 0 && text.charAt(end - 1) == ' ' && (end < 2 || text.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            text = text.substring(0, end);
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            final boolean negated = text.startsWith("!");
+            if (negated) {
+                text = text.substring(1);
+            }
+            final boolean directoryOnly = text.endsWith("/") && !text.endsWith("\\/");
+            if (directoryOnly) {
+                text = text.substring(0, text.length() - 1);
+            }
+            final boolean anchored = text.indexOf('/') >= 0;
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            final StringBuilder regex = new StringBuilder(anchored ? "" : "(?:.*/)?");
+            translate(text, regex);
+            return new Rule(Pattern.compile(regex.toString()), negated, directoryOnly);
+        }
+
+        private static void translate(final String text, final StringBuilder regex) {
+            int i = 0;
+            while (i < text.length()) {
+                final char c = text.charAt(i);
+                if (i == 0 && text.startsWith("**/")) {
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else if (text.startsWith("/**/", i)) {
+                    regex.append("/(?:.*/)?");
+                    i += 4;
+                } else if (text.startsWith("/**", i) && i + 3 == text.length()) {
+                    regex.append("/.*");
+                    i += 3;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                    while (i < text.length() && text.charAt(i) == '*') {
+                        i++;
+                    }
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[') {
+                    i = translateClass(text, i, regex);
+                } else if (c == '\\' && i + 1 < text.length()) {
+                    quote(text.charAt(i + 1), regex);
+                    i += 2;
+                } else {
+                    quote(c, regex);
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Translates a bracket expression.
+         * @return the index after the expression.
+         */
+        private static int translateClass(final String text, final int start, final StringBuilder regex) {
+            int i = start + 1;
+            final StringBuilder range = new StringBuilder("[");
+            if (i < text.length() && (text.charAt(i) == '!' || text.charAt(i) == '^')) {
+                range.append('^');
+                i++;
+            }
+            boolean first = true;
+            while (i < text.length() && (first || text.charAt(i) != ']')) {
+                final char c = text.charAt(i);
+                if (c == '\\' && i + 1 < text.length()) {
+                    i++;
+                    quote(text.charAt(i), range);
+                } else if (c == '[' || c == '&' || c == '\\' || c == '^' || (c == ']' && first)) {
+                    range.append('\\').append(c);
+                } else {
+                    range.append(c);
+                }
+                first = false;
+                i++;
+            }
+            if (i >= text.length()) {
+                // no closing bracket, the bracket is literal
+                quote('[', regex);
+                return start + 1;
+            }
+            regex.append(range).append(']');
+            return i + 1;
+        }
+
+        private static void quote(final char c, final StringBuilder regex) {
+            if (Character.isLetterOrDigit(c)) {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+    }
+}
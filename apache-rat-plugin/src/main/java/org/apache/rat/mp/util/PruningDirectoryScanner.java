@@ -0,0 +1,265 @@
+package org.apache.rat.mp.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.rat.walker.PathPatternFilter;
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Scans a directory for the files to check.  The files found are those of the Plexus {@code DirectoryScanner},
+ * but directories whose contents are all excluded, such as {@code target/**}, are never listed: the exclusion
+ * patterns are analysed by a {@link PathPatternFilter} and each directory is tested before the walk descends
+ * into it.  A directory that matches a pattern that does not cover its contents is still walked and each file
+ * in it is tested on its own, as in Plexus.  Include patterns are matched with the Plexus rules.
+ */
+public final class PruningDirectoryScanner {
+    private final File basedir;
+    private final PathPatternFilter excludes;
+    private final List<String> includes;
+    private final List<String> includedFiles = new ArrayList<>();
+    private final List<String> excludedPaths = new ArrayList<>();
+    /** the git ignore files that apply to the directory being scanned, the deepest last. */
+    private final List<IgnoreLevel> ignoreLevels = new ArrayList<>();
+    /** the base directory relative to the git repository root, empty or ending with a {@code /}. */
+    private String basePrefix = "";
+    private final Log log;
+    private boolean useGitIgnores;
+
+    /**
+     * Constructor.
+     * @param log the log to report unreadable ignore files to.
+     * @param basedir the directory to scan.
+     * @param excludes the exclusion patterns.
+     * @param includes the inclusion patterns, all files are included if empty.
+     */
+    public PruningDirectoryScanner(final Log log, final File basedir, final Collection<String> excludes,
+            final Collection<String> includes) {
+        this.log = log;
+        this.basedir = basedir;
+        this.excludes = new PathPatternFilter(null, excludes);
+        this.includes = new ArrayList<>();
+        for (String include : includes) {
+            String pattern = include.trim().replace('/', File.separatorChar).replace('\\', File.separatorChar);
+            if (pattern.endsWith(File.separator)) {
+                pattern += "**";
+            }
+            this.includes.add(pattern);
+        }
+    }
+
+    /**
+     * Sets whether the paths that git ignores are excluded.  The {@code .gitignore} files of the directories
+     * between the repository root and the base directory, and {@code .git/info/exclude}, are read when the scan
+     * starts, the {@code .gitignore} file of each directory below is read when the directory is listed.  Deeper
+     * files take precedence, as in git, and ignored directories are not listed.
+     * @param useGitIgnores {@code true} to exclude the paths that git ignores, defaults to {@code false}.
+     */
+    public void setUseGitIgnores(final boolean useGitIgnores) {
+        this.useGitIgnores = useGitIgnores;
+    }
+
+    /**
+     * Scans the base directory.
+     * @throws IOException if the base directory can not be listed.
+     */
+    public void scan() throws IOException {
+        includedFiles.clear();
+        excludedPaths.clear();
+        ignoreLevels.clear();
+        basePrefix = "";
+        if (useGitIgnores) {
+            loadParentIgnores();
+        }
+        scan(basedir.toPath(), "");
+    }
+
+    /**
+     * Filters a list of files instead of scanning the base directory.  The paths and the directories they are
+     * in are matched against the excludes, the paths against the includes.  Git ignore files are not used, the
+     * list is expected to come from git.
+     * @param paths the paths relative to the base directory, with {@code /} as the separator.
+     */
+    public void scan(final Collection<String> paths) {
+        includedFiles.clear();
+        excludedPaths.clear();
+        for (String path : paths) {
+            final String local = path.replace('/', File.separatorChar);
+            if (excludes.matches(path)) {
+                excludedPaths.add(local);
+            } else if (new File(basedir, local).isFile() && isIncluded(local)) {
+                includedFiles.add(local);
+            }
+        }
+    }
+
+    /**
+     * Loads the ignore files that apply to the base directory from the directories above it.
+     */
+    private void loadParentIgnores() {
+        final File base = basedir.getAbsoluteFile().toPath().normalize().toFile();
+        final List<File> parents = new ArrayList<>();
+        File root = base;
+        while (root != null && !new File(root, ".git").exists()) {
+            parents.add(0, root);
+            root = root.getParentFile();
+        }
+        if (root == null) {
+            // not in a repository, only the ignore files at and below the base directory apply
+            return;
+        }
+        parents.add(0, root);
+        load(new File(root, ".git/info/exclude"), "");
+        final StringBuilder prefix = new StringBuilder();
+        for (File parent : parents.subList(0, parents.size() - 1)) {
+            if (parent != root) {
+                prefix.append(parent.getName()).append('/');
+            }
+            load(new File(parent, GitIgnore.FILE_NAME), prefix.toString());
+        }
+        basePrefix = parents.size() == 1 ? "" : prefix + base.getName() + "/";
+    }
+
+    /**
+     * Loads an ignore file, unreadable files are logged and skipped.
+     * @param file the ignore file.
+     * @param directory the directory the rules apply to, relative to the repository root.
+     * @return {@code true} if rules were added.
+     */
+    private boolean load(final File file, final String directory) {
+        try {
+            final GitIgnore ignore = GitIgnore.read(file);
+            if (ignore != null) {
+                log.debug("Using git ignore rules from " + file);
+                ignoreLevels.add(new IgnoreLevel(directory, ignore));
+                return true;
+            }
+        } catch (IOException e) {
+            log.warn("Cannot parse " + file + " for exclusions. Will skip this file.");
+            log.debug("Skip parsing " + file + " due to " + e.getMessage());
+        }
+        return false;
+    }
+
+    private boolean isGitIgnored(final String path, final boolean directory) {
+        final String repositoryPath = basePrefix + path;
+        for (int i = ignoreLevels.size() - 1; i >= 0; i--) {
+            final IgnoreLevel level = ignoreLevels.get(i);
+            final Boolean ignored = level.ignore.isIgnored(repositoryPath.substring(level.directory.length()),
+                    directory);
+            if (ignored != null) {
+                return ignored;
+            }
+        }
+        return false;
+    }
+
+    private void scan(final Path dir, final String prefix) throws IOException {
+        final boolean ignoreLoaded = useGitIgnores && load(dir.resolve(GitIgnore.FILE_NAME).toFile(),
+                basePrefix + prefix.replace(File.separatorChar, '/'));
+        try {
+            scanEntries(dir, prefix);
+        } finally {
+            if (ignoreLoaded) {
+                ignoreLevels.remove(ignoreLevels.size() - 1);
+            }
+        }
+    }
+
+    private void scanEntries(final Path dir, final String prefix) throws IOException {
+        final List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        } catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+        Collections.sort(entries);
+        for (Path entry : entries) {
+            final String name = entry.getFileName().toString();
+            final String path = prefix + name;
+            final String slashed = path.replace(File.separatorChar, '/');
+            final boolean directory = Files.isDirectory(entry);
+            if ((directory ? excludes.excludesTree(slashed) : excludes.matches(slashed))
+                    || useGitIgnores && isGitIgnored(slashed, directory)) {
+                excludedPaths.add(path);
+            } else if (directory) {
+                if (excludes.matches(slashed)) {
+                    excludedPaths.add(path);
+                }
+                scan(entry, path + File.separator);
+            } else if (isIncluded(path)) {
+                includedFiles.add(path);
+            }
+        }
+    }
+
+    private boolean isIncluded(final String path) {
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (String include : includes) {
+            if (SelectorUtils.matchPath(include, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The rules of an ignore file and the directory they apply to.
+     */
+    private static final class IgnoreLevel {
+        private final String directory;
+        private final GitIgnore ignore;
+
+        private IgnoreLevel(final String directory, final GitIgnore ignore) {
+            this.directory = directory;
+            this.ignore = ignore;
+        }
+    }
+
+    /**
+     * @return the files that are included and not excluded, relative to the base directory.
+     */
+    public String[] getIncludedFiles() {
+        return includedFiles.toArray(new String[0]);
+    }
+
+    /**
+     * @return the files and directories that matched an exclusion, the contents of directories excluded with
+     * their contents are not listed.
+     */
+    public String[] getExcludedPaths() {
+        return excludedPaths.toArray(new String[0]);
+    }
+}
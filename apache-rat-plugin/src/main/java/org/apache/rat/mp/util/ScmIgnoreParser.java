@@ -30,6 +30,8 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -84,9 +86,22 @@ public final class ScmIgnoreParser {
      * @return Exclusions from the SCM ignore files.
      */
     public static List<String> getExclusionsFromSCM(final Log log, final File baseDir) {
+        return getExclusionsFromSCM(log, baseDir, Collections.emptySet());
+    }
+
+    /**
+     * Parse ignore files from the known SCMs that have ignore files, except the skipped ones.
+     *
+     * @param log     Show information via maven logger.
+     * @param baseDir base directory from which to look for SCM ignores.
+     * @param skipped the SCMs whose ignore files are handled elsewhere.
+     * @return Exclusions from the SCM ignore files.
+     */
+    public static List<String> getExclusionsFromSCM(final Log log, final File baseDir,
+                                                    final Collection<SourceCodeManagementSystems> skipped) {
         List<String> exclusions = new ArrayList<>();
         for (SourceCodeManagementSystems scm : SourceCodeManagementSystems.values()) {
-            if (scm.hasIgnoreFile()) {
+            if (scm.hasIgnoreFile() && !skipped.contains(scm)) {
                 exclusions.addAll(getExcludesFromFile(log, new File(baseDir, scm.getIgnoreFile())));
             }
         }
@@ -0,0 +1,87 @@
+package org.apache.rat.mp.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class GitIgnoreTest {
+
+    private static Boolean ignored(String rules, String path, boolean directory) {
+        return GitIgnore.parse(Arrays.asList(rules.split("\n"))).isIgnored(path, directory);
+    }
+
+    @Test
+    public void unanchoredRulesMatchAtAnyDepth() {
+        assertEquals(Boolean.TRUE, ignored("*.class", "A.class", false));
+        assertEquals(Boolean.TRUE, ignored("*.class", "a/b/A.class", false));
+        assertEquals(Boolean.TRUE, ignored("node_modules", "web/node_modules", true));
+        assertNull(ignored("*.class", "a/A.java", false));
+        assertNull(ignored("*.class", "a.class/A.java", false));
+    }
+
+    @Test
+    public void rulesWithASlashAreAnchored() {
+        assertEquals(Boolean.TRUE, ignored("/target", "target", true));
+        assertNull(ignored("/target", "sub/target", true));
+        assertEquals(Boolean.TRUE, ignored("doc/*.html", "doc/index.html", false));
+        assertNull(ignored("doc/*.html", "doc/api/index.html", false));
+        assertNull(ignored("doc/*.html", "sub/doc/index.html", false));
+    }
+
+    @Test
+    public void directoryOnlyRules() {
+        assertEquals(Boolean.TRUE, ignored("build/", "build", true));
+        assertEquals(Boolean.TRUE, ignored("build/", "a/build", true));
+        assertNull(ignored("build/", "build", false));
+    }
+
+    @Test
+    public void lastMatchingRuleWins() {
+        String rules = "*.log\n!keep.log\n# comment\n\n";
+        assertEquals(Boolean.TRUE, ignored(rules, "x.log", false));
+        assertEquals(Boolean.FALSE, ignored(rules, "keep.log", false));
+        assertEquals(Boolean.TRUE, ignored(rules + "keep.log", "keep.log", false));
+    }
+
+    @Test
+    public void wildcards() {
+        assertEquals(Boolean.TRUE, ignored("**/cache", "a/b/cache", true));
+        assertEquals(Boolean.TRUE, ignored("**/cache", "cache", true));
+        assertEquals(Boolean.TRUE, ignored("a/**/b", "a/b", true));
+        assertEquals(Boolean.TRUE, ignored("a/**/b", "a/x/y/b", true));
+        assertEquals(Boolean.TRUE, ignored("out/**", "out/x/y", false));
+        assertNull(ignored("out/**", "out", true));
+        assertEquals(Boolean.TRUE, ignored("file?.[ch]", "file1.c", false));
+        assertNull(ignored("file?.[ch]", "file12.c", false));
+        assertEquals(Boolean.TRUE, ignored("[!a]*.txt", "b.txt", false));
+        assertNull(ignored("[!a]*.txt", "a.txt", false));
+        assertEquals(Boolean.TRUE, ignored("\\#hash\\!", "#hash!", false));
+        assertEquals(Boolean.TRUE, ignored("\\!bang", "!bang", false));
+        assertEquals(Boolean.TRUE, ignored("trailing   ", "trailing", false));
+    }
+
+    @Test
+    public void noRules() {
+        assertNull(GitIgnore.parse(Arrays.asList("# only a comment", "")));
+    }
+}
@@ -0,0 +1,181 @@
+package org.apache.rat.mp.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PruningDirectoryScannerTest {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private void write(String path) throws IOException {
+        File file = new File(folder.getRoot(), path.replace('/', File.separatorChar));
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), path.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] paths(String... paths) {
+        return Arrays.stream(paths).map(p -> p.replace('/', File.separatorChar)).toArray(String[]::new);
+    }
+
+    @Test
+    public void excludedDirectoriesAreNotListed() throws Exception {
+        write("pom.xml");
+        write("src/main/A.java");
+        write("src/main/notes.txt");
+        write("target/classes/A.class");
+        write("web/node_modules/x/index.js");
+        write(".git/config");
+
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, folder.getRoot(),
+                Arrays.asList("target/**/*", "**/node_modules/**", "**/.git/**", "**/*.txt"),
+                Collections.emptyList());
+        scanner.scan();
+
+        assertArrayEquals(paths("pom.xml", "src/main/A.java"), scanner.getIncludedFiles());
+        assertArrayEquals(paths(".git", "src/main/notes.txt", "target", "web/node_modules"),
+                scanner.getExcludedPaths());
+    }
+
+    @Test
+    public void directoryMatchesFollowPlexus() throws Exception {
+        write("pom.xml");
+        write("target/classes/A.class");
+        write("target/rat.txt");
+        write("src/main/A.java");
+        write("src/main/dir.java/notes.txt");
+        write("gen/B.java");
+        write("gen/sub/C.txt");
+        write("docs/a/b/c.md");
+        write("docs/a/d.md");
+
+        final String[] excludes = { "target", "**/*.java", "gen/*", "docs/a/**/*", "src/**/" };
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, folder.getRoot(), Arrays.asList(excludes),
+                Collections.emptyList());
+        scanner.scan();
+
+        DirectoryScanner plexus = new DirectoryScanner();
+        plexus.setBasedir(folder.getRoot());
+        plexus.setExcludes(excludes);
+        plexus.scan();
+        String[] expected = plexus.getIncludedFiles();
+        Arrays.sort(expected);
+
+        assertArrayEquals(paths("gen/sub/C.txt", "pom.xml", "target/classes/A.class", "target/rat.txt"), expected);
+        assertArrayEquals(expected, scanner.getIncludedFiles());
+    }
+
+    @Test
+    public void nestedGitIgnoresFollowGitPrecedence() throws Exception {
+        new File(folder.getRoot(), ".git/info").mkdirs();
+        Files.write(new File(folder.getRoot(), ".git/info/exclude").toPath(), "*.tmp\n".getBytes(StandardCharsets.UTF_8));
+        write(".gitignore");
+        Files.write(new File(folder.getRoot(), ".gitignore").toPath(),
+                "*.log\nbuild/\n/generated\n".getBytes(StandardCharsets.UTF_8));
+        write("module/.gitignore");
+        Files.write(new File(folder.getRoot(), "module/.gitignore").toPath(),
+                "!keep.log\n*.txt\n".getBytes(StandardCharsets.UTF_8));
+        write("a.log");
+        write("a.tmp");
+        write("generated/G.java");
+        write("module/keep.log");
+        write("module/other.log");
+        write("module/notes.txt");
+        write("module/generated/G.java");
+        write("module/build/out.bin");
+        write("module/src/A.java");
+        write("notes.txt");
+
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, new File(folder.getRoot(), "module"),
+                Arrays.asList("**/.git/**"), Collections.emptyList());
+        scanner.setUseGitIgnores(true);
+        scanner.scan();
+        assertArrayEquals(paths(".gitignore", "generated/G.java", "keep.log", "src/A.java"),
+                scanner.getIncludedFiles());
+
+        scanner = new PruningDirectoryScanner(LOG, folder.getRoot(), Arrays.asList("**/.git/**"),
+                Collections.emptyList());
+        scanner.setUseGitIgnores(true);
+        scanner.scan();
+        assertArrayEquals(paths(".gitignore", "module/.gitignore", "module/generated/G.java", "module/keep.log",
+                "module/src/A.java", "notes.txt"), scanner.getIncludedFiles());
+        assertArrayEquals(paths(".git", "a.log", "a.tmp", "generated", "module/build", "module/notes.txt",
+                "module/other.log"), scanner.getExcludedPaths());
+    }
+
+    @Test
+    public void gitIgnoresAreOnlyUsedWhenEnabled() throws Exception {
+        new File(folder.getRoot(), ".git").mkdirs();
+        write(".gitignore");
+        Files.write(new File(folder.getRoot(), ".gitignore").toPath(), "*.log\n".getBytes(StandardCharsets.UTF_8));
+        write("a.log");
+
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, folder.getRoot(),
+                Arrays.asList("**/.git/**"), Collections.emptyList());
+        scanner.scan();
+        assertArrayEquals(paths(".gitignore", "a.log"), scanner.getIncludedFiles());
+
+        scanner.setUseGitIgnores(true);
+        scanner.scan();
+        assertArrayEquals(paths(".gitignore"), scanner.getIncludedFiles());
+    }
+
+    @Test
+    public void givenPathsAreFiltered() throws Exception {
+        write("pom.xml");
+        write("src/main/A.java");
+        write("target/classes/A.class");
+
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, folder.getRoot(),
+                Arrays.asList("target/**/*"), Collections.emptyList());
+        scanner.scan(Arrays.asList("deleted.txt", "pom.xml", "src/main/A.java", "target/classes/A.class"));
+
+        assertArrayEquals(paths("pom.xml", "src/main/A.java"), scanner.getIncludedFiles());
+        assertArrayEquals(paths("target/classes/A.class"), scanner.getExcludedPaths());
+    }
+
+    @Test
+    public void includesAreMatchedWithPlexusRules() throws Exception {
+        write("pom.xml");
+        write("src/main/A.java");
+        write("src/site/index.md");
+
+        PruningDirectoryScanner scanner = new PruningDirectoryScanner(LOG, folder.getRoot(),
+                Collections.singletonList("src/site/"), Arrays.asList("**/*.java", "*.xml", "src/site/**"));
+        scanner.scan();
+
+        assertArrayEquals(paths("pom.xml", "src/main/A.java"), scanner.getIncludedFiles());
+    }
+}
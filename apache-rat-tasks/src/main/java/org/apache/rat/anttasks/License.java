@@ -50,6 +50,14 @@ public class License {
         builder.setLicenseFamilyName(licenseFamilyName);
     }
 
+    public void setScanLineLimit(int scanLineLimit) {
+        builder.setScanLineLimit(scanLineLimit);
+    }
+
+    public void setScanCharLimit(long scanCharLimit) {
+        builder.setScanCharLimit(scanCharLimit);
+    }
+
     public void add(IHeaderMatcher.Builder builder) {
         this.builder.setMatcher(builder);
     }
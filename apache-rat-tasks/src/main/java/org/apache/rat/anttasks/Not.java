@@ -31,6 +31,14 @@ public class Not implements IHeaderMatcher.Builder {
         return builder.build();
     }
     
+    public void setLines(String lines) {
+        builder.setLines(lines);
+    }
+
+    public void setChars(String chars) {
+        builder.setChars(chars);
+    }
+
     public void add(IHeaderMatcher.Builder builder) {
         this.builder.add(builder);
     }
@@ -72,6 +72,7 @@ public class Report extends Task {
     private Defaults.Builder defaultsBuilder;
     private final ReportConfiguration configuration;
     private List<License> licenses = new ArrayList<>();
+    private final List<String> excludes = new ArrayList<>();
     /**
      * will hold any nested resource collection
      */
@@ -99,6 +100,15 @@ public class Report extends Task {
         configuration.setInputFileFilter(inputFileFilter);
     }
 
+    /**
+     * Excludes the resources matching the patterns.  Nested file sets get the patterns as excludes, so that
+     * their scanners do not list excluded directories, other resources are matched by name.
+     * @param patterns Ant style patterns separated by commas or spaces, such as {@code target/**}.
+     */
+    public void setExcludes(String patterns) {
+        excludes.addAll(Arrays.asList(patterns.trim().split("[,\\s]+")));
+    }
+
     public void setReportFile(File reportFile) {
         configuration.setOut(reportFile);
     }
@@ -126,6 +136,41 @@ public class Report extends Task {
         configuration.setStyleReport(styleReport);
     }
 
+    /**
+     * @param threads the number of threads used to analyse the resources.
+     */
+    public void setThreads(int threads) {
+        configuration.setThreads(threads);
+    }
+
+    /**
+     * @param scanLineLimit the maximum number of lines read from each resource, 0 for no limit.
+     */
+    public void setScanLineLimit(int scanLineLimit) {
+        configuration.setScanLineLimit(scanLineLimit);
+    }
+
+    /**
+     * @param scanCharLimit the maximum number of characters read from each resource, 0 for no limit.
+     */
+    public void setScanCharLimit(long scanCharLimit) {
+        configuration.setScanCharLimit(scanCharLimit);
+    }
+
+    /**
+     * @param cacheFile the file to cache analysis results in between runs.
+     */
+    public void setCacheFile(File cacheFile) {
+        configuration.setCacheFile(cacheFile);
+    }
+
+    /**
+     * @param archiveDepth the number of levels of nested archives whose entries are scanned.
+     */
+    public void setArchiveDepth(int archiveDepth) {
+        configuration.setArchiveDepth(archiveDepth);
+    }
+
     /**
      * 
      * @param style
@@ -204,7 +249,8 @@ public class Report extends Task {
         try {
             Defaults defaults = defaultsBuilder.build();
             configuration.setFrom(defaults);
-            configuration.setReportable(new ResourceCollectionContainer(nestedResources));
+            configuration.setReportable(new ResourceCollectionContainer(nestedResources,
+                    configuration.getInputFileFilter(), excludes));
             licenses.stream().map(License::build).forEach((l) -> {
                 configuration.addLicense(l);
                 configuration.addApprovedLicenseCategory(l.getLicenseFamily());
@@ -19,10 +19,14 @@
 package org.apache.rat.anttasks;
 
 import java.io.File;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 import org.apache.rat.api.Document;
 import org.apache.rat.api.MetaData;
@@ -30,8 +34,11 @@ import org.apache.rat.api.RatException;
 import org.apache.rat.document.impl.DocumentImplUtils;
 import org.apache.rat.report.IReportable;
 import org.apache.rat.report.RatReport;
+import org.apache.rat.walker.PathPatternFilter;
+import org.apache.tools.ant.types.AbstractFileSet;
 import org.apache.tools.ant.types.Resource;
 import org.apache.tools.ant.types.ResourceCollection;
+import org.apache.tools.ant.types.resources.BaseResourceCollectionContainer;
 import org.apache.tools.ant.types.resources.FileResource;
 
 /**
@@ -40,17 +47,56 @@ import org.apache.tools.ant.types.resources.FileResource;
  */
 class ResourceCollectionContainer implements IReportable {
     private final ResourceCollection rc;
+    private final FilenameFilter filter;
+    private final PathPatternFilter excludes;
 
     ResourceCollectionContainer(ResourceCollection rc) {
+        this(rc, null, Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     * @param rc the resources to report on.
+     * @param filter filters the file resources (optional), or null when no filtering should be performed.
+     * @param excludes the patterns excluding resources, they are added to the excludes of nested file sets.
+     */
+    ResourceCollectionContainer(ResourceCollection rc, FilenameFilter filter, List<String> excludes) {
         this.rc = rc;
+        this.filter = filter;
+        this.excludes = new PathPatternFilter(null, excludes);
+        if (!this.excludes.isEmpty()) {
+            final String[] patterns = excludes.stream().map(PathPatternFilter::normalize).filter(Objects::nonNull)
+                    .toArray(String[]::new);
+            addExcludes(rc, patterns);
+        }
+    }
+
+    private static void addExcludes(ResourceCollection rc, String[] patterns) {
+        if (rc instanceof AbstractFileSet && !((AbstractFileSet) rc).isReference()) {
+            ((AbstractFileSet) rc).appendExcludes(patterns);
+        } else if (rc instanceof BaseResourceCollectionContainer) {
+            for (ResourceCollection nested : ((BaseResourceCollectionContainer) rc).getResourceCollections()) {
+                addExcludes(nested, patterns);
+            }
+        }
+    }
+
+    private boolean isNotIgnored(Resource r) {
+        if (excludes.matches(r.getName())) {
+            return false;
+        }
+        if (filter != null && r instanceof FileResource) {
+            final File file = ((FileResource) r).getFile();
+            return filter.accept(file.getParentFile(), file.getName());
+        }
+        return true;
     }
 
     public void run(RatReport report) throws RatException {
-        ResourceDocument document = new ResourceDocument();
         for (Resource r : rc) {
-            if (!r.isDirectory()) {
+            if (!r.isDirectory() && isNotIgnored(r)) {
+                ResourceDocument document = new ResourceDocument();
                 document.setResource(r);
-                document.getMetaData().clear();
                 report.report(document);
             }
         }
@@ -98,5 +144,10 @@ class ResourceCollectionContainer implements IReportable {
         public InputStream inputStream() throws IOException {
             return resource.getInputStream();
         }
+
+        @Override
+        public File getFile() {
+            return resource instanceof FileResource ? ((FileResource) resource).getFile() : null;
+        }
     }
 }
@@ -52,6 +52,14 @@ public class ReportTest extends AbstractRatAntTaskTest {
         assertLogMatches("AL +\\Q" + getAntFileName() + "\\E");
     }
 
+    @Test
+    public void testExcludes() throws Exception {
+        buildRule.executeTarget("testExcludes");
+        assertLogDoesNotMatch("\\Q" + getAntFileName() + "\\E");
+        assertLogDoesNotMatch("customLicense\\.xml");
+        assertLogMatches("report-normal-operation\\.xml");
+    }
+
     @Test
     public void testWithReportSentToFile() throws Exception {
         final File reportFile = new File(getTempDir(), "selftest.report");